@@ -0,0 +1,52 @@
+package kcenters.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The all-pairs shortest path step, comparing the plain and blocked Floyd-Warshall with the Dijkstra backend
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AllPairsBenchmark {
+    private static final MethodHandle COMPUTE = Engine.method("AllPairsShortestPaths", "compute", long.class,
+            Engine.GRAPH, double[][].class);
+
+    @Param({ "pmed1", "pmed20", "pmed40", "random-1000-20000-10" })
+    public String instance;
+
+    @Param({ "FloydWarshallAllPairs", "BlockedFloydWarshallAllPairs", "DijkstraAllPairs" })
+    public String backend;
+
+    private Object graph;
+    private Object allPairs;
+    private double[][] distances;
+
+    @Setup
+    public void setup() throws Throwable {
+        graph = Engine.graph(instance);
+        allPairs = Engine.constructor(backend).invoke();
+        int V = Engine.vertices(graph);
+        distances = new double[V][V];
+    }
+
+    // Every backend fills the whole matrix, so it is reused between invocations
+    @Benchmark
+    public long compute() throws Throwable {
+        return (long) COMPUTE.invoke(allPairs, graph, distances);
+    }
+}
@@ -0,0 +1,86 @@
+package kcenters.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The approximate method, as a whole and split into its greedy and local search stages
+// Except for the cold run, the distance matrix is computed once in the setup and shared by every invocation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApproximateBenchmark {
+    private static final Class<?> ROWS = Engine.type("FarthestFirst$DistanceRows");
+    private static final MethodHandle NEW_ORACLE = Engine.constructor("DistanceOracle");
+    private static final MethodHandle DISTANCES = Engine.method("DistanceOracle", "distances", double[][].class,
+            Engine.GRAPH);
+    private static final MethodHandle NEW_AVERAGE = Engine.constructor("AverageMethod", Engine.ORACLE);
+    private static final MethodHandle AVERAGE = Engine.method("AverageMethod", "execute", Engine.RESULT, Engine.GRAPH);
+    private static final MethodHandle NEW_GREEDY = Engine.constructor("FarthestFirst");
+    private static final MethodHandle FROM_MATRIX = Engine.staticMethod("FarthestFirst", "fromMatrix", ROWS,
+            double[][].class);
+    private static final MethodHandle SELECT = Engine.method("FarthestFirst", "select", int[].class, int.class,
+            int.class, int.class, ROWS);
+    private static final MethodHandle NEW_LOCAL_SEARCH = Engine.constructor("LocalSearch", double[][].class);
+    private static final MethodHandle REFINE = Engine.method("LocalSearch", "refine", double.class, int[].class);
+
+    @Param({ "pmed1", "pmed20", "pmed40", "random-1000-20000-10" })
+    public String instance;
+
+    private Object graph;
+    private Object averageMethod;
+    private double[][] distances;
+    private Object rows;
+    private int[] greedyCenters;
+    private int V;
+    private int k;
+
+    @Setup
+    public void setup() throws Throwable {
+        graph = Engine.graph(instance);
+        V = Engine.vertices(graph);
+        k = Engine.centers(graph);
+
+        Object oracle = NEW_ORACLE.invoke();
+        distances = (double[][]) DISTANCES.invoke(oracle, graph);
+        averageMethod = NEW_AVERAGE.invoke(oracle);
+        rows = FROM_MATRIX.invoke(distances);
+        greedyCenters = (int[]) SELECT.invoke(NEW_GREEDY.invoke(), V, k, 0, rows);
+    }
+
+    // Includes the all-pairs shortest paths, as the first run over an instance does
+    @Benchmark
+    public Object averageMethodCold() throws Throwable {
+        return AVERAGE.invoke(NEW_AVERAGE.invoke(NEW_ORACLE.invoke()), graph);
+    }
+
+    @Benchmark
+    public Object averageMethod() throws Throwable {
+        return AVERAGE.invoke(averageMethod, graph);
+    }
+
+    @Benchmark
+    public int[] greedy() throws Throwable {
+        return (int[]) SELECT.invoke(NEW_GREEDY.invoke(), V, k, 0, rows);
+    }
+
+    // Starts every invocation from the same greedy centers, since the search changes them in place
+    @Benchmark
+    public double localSearch() throws Throwable {
+        return (double) REFINE.invoke(NEW_LOCAL_SEARCH.invoke(distances), greedyCenters.clone());
+    }
+}
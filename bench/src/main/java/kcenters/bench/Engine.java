@@ -0,0 +1,106 @@
+package kcenters.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import edu.princeton.cs.algs4.StdRandom;
+
+// Class used to reach the solvers, which live in the default package and so cannot be named from here
+// JMH refuses benchmarks in the default package, so every call goes through a method handle resolved once
+final class Engine {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+    // Seed of the synthetic graphs, so every fork measures the same graph
+    private static final long SEED = 42;
+
+    static final Class<?> GRAPH = type("EdgeWeightedGraph");
+    static final Class<?> RESULT = type("MethodResult");
+    static final Class<?> ORACLE = type("DistanceOracle");
+
+    private static final MethodHandle READ = method("GraphReader", "execute", GRAPH);
+    private static final MethodHandle NEW_READER = constructor("GraphReader", String.class);
+    private static final MethodHandle NEW_RANDOM_GRAPH = constructor("EdgeWeightedGraph", int.class, int.class, int.class);
+    private static final MethodHandle V = method("EdgeWeightedGraph", "V", int.class);
+    private static final MethodHandle CENTERS = method("EdgeWeightedGraph", "Centers", int.class);
+    private static final MethodHandle RADIUS = field("MethodResult", "radius");
+
+    private Engine() {
+    }
+
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Solver class " + name + " is not on the class path", e);
+        }
+    }
+
+    static MethodHandle constructor(String className, Class<?>... parameters) {
+        try {
+            return LOOKUP.findConstructor(type(className), MethodType.methodType(void.class, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing constructor of " + className, e);
+        }
+    }
+
+    static MethodHandle method(String className, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return LOOKUP.findVirtual(type(className), name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing method " + className + "." + name, e);
+        }
+    }
+
+    static MethodHandle staticMethod(String className, String name, Class<?> returnType, Class<?>... parameters) {
+        try {
+            return LOOKUP.findStatic(type(className), name, MethodType.methodType(returnType, parameters));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing method " + className + "." + name, e);
+        }
+    }
+
+    // MethodResult keeps its fields package-private, so they are opened once here
+    private static MethodHandle field(String className, String name) {
+        try {
+            Field field = type(className).getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing field " + className + "." + name, e);
+        }
+    }
+
+    // Instance names are either a file of TestCases, like "pmed10", or "random-V-E-k" for a synthetic graph
+    static Object graph(String instance) throws Throwable {
+        if (instance.startsWith("random-")) {
+            String[] parts = instance.split("-");
+            if (parts.length != 4)
+                throw new IllegalArgumentException("Synthetic instances are named random-V-E-k: " + instance);
+            StdRandom.setSeed(SEED);
+            return NEW_RANDOM_GRAPH.invoke(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                    Integer.parseInt(parts[3]));
+        }
+        Object graph = READ.invoke(NEW_READER.invoke(instanceFile(instance)));
+        if (graph == null)
+            throw new IllegalArgumentException("Could not read instance " + instance);
+        return graph;
+    }
+
+    // TestCases is looked up next to the bench directory unless -Dtestcases points somewhere else
+    static String instanceFile(String instance) {
+        return System.getProperty("testcases", "../TestCases") + "/" + instance + ".txt";
+    }
+
+    static int vertices(Object graph) throws Throwable {
+        return (int) V.invoke(graph);
+    }
+
+    static int centers(Object graph) throws Throwable {
+        return (int) CENTERS.invoke(graph);
+    }
+
+    static double radius(Object result) throws Throwable {
+        return (double) RADIUS.invoke(result);
+    }
+}
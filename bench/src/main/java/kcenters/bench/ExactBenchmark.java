@@ -0,0 +1,61 @@
+package kcenters.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The exact solvers on instances small enough to finish, each started from the approximate radius
+// as its superior limit, like ProblemTester does
+// Every run is long, so each iteration is a single call
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExactBenchmark {
+    private static final MethodHandle NEW_ORACLE = Engine.constructor("DistanceOracle");
+    private static final MethodHandle DISTANCES = Engine.method("DistanceOracle", "distances", double[][].class,
+            Engine.GRAPH);
+    private static final MethodHandle NEW_AVERAGE = Engine.constructor("AverageMethod", Engine.ORACLE);
+    private static final MethodHandle AVERAGE = Engine.method("AverageMethod", "execute", Engine.RESULT, Engine.GRAPH);
+    private static final MethodHandle EXECUTE = Engine.method("ExactSolver", "execute", Engine.RESULT, Engine.GRAPH,
+            double.class);
+
+    @Param({ "pmed1", "pmed2", "random-120-1500-4" })
+    public String instance;
+
+    @Param({ "ExactMethod", "RadiusSearchMethod" })
+    public String solver;
+
+    private Object graph;
+    private Object oracle;
+    private MethodHandle newSolver;
+    private double superiorLimit;
+
+    @Setup
+    public void setup() throws Throwable {
+        graph = Engine.graph(instance);
+        oracle = NEW_ORACLE.invoke();
+        DISTANCES.invoke(oracle, graph);
+        superiorLimit = Engine.radius(AVERAGE.invoke(NEW_AVERAGE.invoke(oracle), graph));
+        newSolver = Engine.constructor(solver, Engine.ORACLE);
+    }
+
+    // A new solver per run, so no incumbent leaks from the previous one
+    @Benchmark
+    public Object execute() throws Throwable {
+        return EXECUTE.invoke(newSolver.invoke(oracle), graph, superiorLimit);
+    }
+}
@@ -0,0 +1,49 @@
+package kcenters.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Parsing of the instance files into graphs
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphReaderBenchmark {
+    private static final MethodHandle NEW_READER = Engine.constructor("GraphReader", String.class);
+    private static final MethodHandle EXECUTE = Engine.method("GraphReader", "execute", Engine.GRAPH);
+    private static final MethodHandle EXECUTE_CSR = Engine.method("GraphReader", "executeCsr", Engine.type("CsrGraph"));
+
+    @Param({ "pmed1", "pmed20", "pmed40" })
+    public String instance;
+
+    private String file;
+
+    @Setup
+    public void setup() {
+        file = Engine.instanceFile(instance);
+    }
+
+    @Benchmark
+    public Object read() throws Throwable {
+        return EXECUTE.invoke(NEW_READER.invoke(file));
+    }
+
+    @Benchmark
+    public Object readCsr() throws Throwable {
+        return EXECUTE_CSR.invoke(NEW_READER.invoke(file));
+    }
+}
@@ -0,0 +1,125 @@
+package kcenters.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The radius reductions, comparing the loops the solvers used before the kernels with the scalar and SIMD kernels
+// The fork adds the incubating Vector API module, otherwise VectorRadiusKernel cannot be loaded
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class RadiusKernelBenchmark {
+    private static final String LEGACY = "legacy";
+    private static final Class<?> KERNEL = Engine.type("RadiusKernel");
+    private static final MethodHandle NEW_ORACLE = Engine.constructor("DistanceOracle");
+    private static final MethodHandle DISTANCES = Engine.method("DistanceOracle", "distances", double[][].class,
+            Engine.GRAPH);
+    private static final MethodHandle RADIUS = Engine.method("RadiusKernel", "radius", double.class,
+            double[][].class, int[].class, double.class);
+    private static final MethodHandle RELAX = Engine.method("RadiusKernel", "relax", void.class, double[].class,
+            double[].class);
+
+    @Param({ "pmed1", "pmed20", "pmed40" })
+    public String instance;
+
+    @Param({ LEGACY, "ScalarRadiusKernel", "VectorRadiusKernel" })
+    public String kernel;
+
+    private double[][] distances;
+    private int[] centers;
+    private double[] nearest;
+    private Object radiusKernel;
+    private boolean legacy;
+
+    @Setup
+    public void setup() throws Throwable {
+        Object graph = Engine.graph(instance);
+        int V = Engine.vertices(graph);
+        int k = Math.min(Engine.centers(graph), V);
+        distances = (double[][]) DISTANCES.invoke(NEW_ORACLE.invoke(), graph);
+
+        // Same distinct centers for every kernel
+        int[] order = new int[V];
+        for (int v = 0; v < V; v++) {
+            order[v] = v;
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(V - i);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        centers = Arrays.copyOf(order, k);
+        nearest = new double[V];
+
+        legacy = kernel.equals(LEGACY);
+        if (!legacy) {
+            radiusKernel = Engine.constructor(kernel).invoke();
+            if (!KERNEL.isInstance(radiusKernel))
+                throw new IllegalArgumentException(kernel + " is not a RadiusKernel");
+        }
+    }
+
+    // Full scan, no vertex is beyond an infinite bound
+    @Benchmark
+    public double radius() throws Throwable {
+        if (legacy) {
+            return legacyRadius(distances, centers);
+        }
+        return (double) RADIUS.invoke(radiusKernel, distances, centers, Double.POSITIVE_INFINITY);
+    }
+
+    // One farthest-first round per center, from an empty selection
+    @Benchmark
+    public double[] relax() throws Throwable {
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        for (int center : centers) {
+            if (legacy) {
+                legacyRelax(nearest, distances[center]);
+            } else {
+                RELAX.invoke(radiusKernel, nearest, distances[center]);
+            }
+        }
+        return nearest;
+    }
+
+    // The loop of ExactMethod.calculateRadius, reading the row of each vertex at the columns of the centers
+    private static double legacyRadius(double[][] distances, int[] centers) {
+        double radius = 0.0;
+        for (double[] row : distances) {
+            double minDistanceToCenter = Double.POSITIVE_INFINITY;
+            for (int center : centers) {
+                minDistanceToCenter = Math.min(minDistanceToCenter, row[center]);
+            }
+            radius = Math.max(radius, minDistanceToCenter);
+        }
+        return radius;
+    }
+
+    // The update of FarthestFirst.select
+    private static void legacyRelax(double[] nearest, double[] row) {
+        for (int v = 0; v < nearest.length; v++) {
+            if (row[v] < nearest[v]) {
+                nearest[v] = row[v];
+            }
+        }
+    }
+}
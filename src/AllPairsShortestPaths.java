@@ -0,0 +1,5 @@
+// Interface implemented by the algorithms that compute the smallest distances between all vertex
+public interface AllPairsShortestPaths {
+    // Fills the V x V matrix with the smallest distances of the graph and returns the comparisons made
+    long compute(EdgeWeightedGraph graph, double[][] distances);
+}
@@ -1,10 +1,44 @@
+import edu.princeton.cs.algs4.StdRandom;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 // Class used to implement the approximate method to solve the K-Centers problem
 // Method used: Greedy Farthest-First Traversal
+// With several restarts, the first one starts at the most central vertex and the others at random vertex,
+// each followed by its own local search, and the smallest radius is kept
 public class AverageMethod {
+    public static final long DEFAULT_SEED = 42L;
+
+    private final DistanceOracle oracle;
+    private final MatrixFreeMethod matrixFree = new MatrixFreeMethod();
+    private final int restarts;
+    private final long seed;
+    private int[] bestCenters = new int[0];
+
     public AverageMethod() {
+        this(new DistanceOracle());
+    }
+
+    public AverageMethod(DistanceOracle oracle) {
+        this(oracle, 1, DEFAULT_SEED);
+    }
+
+    // The seed fixes the random start vertex, so the same restarts always give the same radius
+    public AverageMethod(DistanceOracle oracle, int restarts, long seed) {
+        if (restarts < 1)
+            throw new IllegalArgumentException("Number of restarts must be positive");
+        this.oracle = oracle;
+        this.restarts = restarts;
+        this.seed = seed;
+    }
+
+    // Centers of the best restart of the last execution
+    public synchronized int[] getBestCenters() {
+        return bestCenters.clone();
     }
 
     // Finds the best aproximate radius for a EdgeWeightedGraph in a polinomial time
@@ -15,169 +49,147 @@ public class AverageMethod {
         int V = graph.V();
         int k = graph.Centers();
 
-        // Get all the smallest distances between all vertex
-        double[][] distances = initializeDistanceMatrix(graph, comparisons);
-        comparisons = floydWarshall(distances, V, comparisons);
-        List<Integer> centers = new ArrayList<>();
-        boolean[] isCenters = new boolean[V];
-
-        // Start with the most central vertex
-        int firstCenter = findMostCentralVertex(distances, V, comparisons);
-        centers.add(firstCenter);
-        isCenters[firstCenter] = true;
-
-        // Iteratively add the vertex farthest from existing centers
-        for (int i = 1; i < k; i++) {
-            int farthestVertex = -1;
-            double maxMinDistance = -1;
-
-            for (int v = 0; v < V; v++) {
-                if (!isCenters[v]) {
-                    double minDistanceToCenter = Double.POSITIVE_INFINITY;
-
-                    for (int center : centers) {
-                        minDistanceToCenter = Math.min(minDistanceToCenter, distances[v][center]);
-                        comparisons++;
-                    }
-
-                    if (minDistanceToCenter > maxMinDistance) {
-                        maxMinDistance = minDistanceToCenter;
-                        farthestVertex = v;
-                        comparisons++;
-                    }
-                }
-            }
-
-            if (farthestVertex != -1) {
-                centers.add(farthestVertex);
-                isCenters[farthestVertex] = true;
-            }
-        }
-
-        int[] centersArray = new int[k];
-        for (int i = 0; i < k; i++) {
-            centersArray[i] = centers.get(i);
+        // Graphs too large for a V x V matrix are solved by the matrix-free method
+        if (!DistanceOracle.fitsInMemory(V)) {
+            return matrixFree.execute(graph);
         }
 
-        double radius = calculateRadius(centersArray, V, distances, comparisons);
-
-        // After finding initial centers, it applies local search:
-        boolean improved = true;
-        int iterations = 0;
-        int maxIterations = 100;
-
-        while (improved && iterations < maxIterations) {
-            improved = false;
-            iterations++;
-
-            for (int i = 0; i < k; i++) {
-                int currentCenter = centersArray[i];
-
-                for (int v = 0; v < V; v++) {
-                    if (!isCenter(v, centersArray)) {
-                        centersArray[i] = v;
-                        double newRadius = calculateRadius(centersArray, V, distances, comparisons);
-
-                        if (newRadius < radius) {
-                            radius = newRadius;
-                            improved = true;
-                            break;
-                        } else {
-                            centersArray[i] = currentCenter;
-                        }
-                    }
-                }
+        PhaseMetrics phases = new PhaseMetrics();
 
-                if (improved)
-                    break;
-            }
+        // Get all the smallest distances between all vertex
+        double[][] distances = oracle.distances(graph);
+        comparisons += oracle.comparisons(graph);
+        oracle.recordDistances(graph, phases);
+
+        // Start with the most central vertex and iteratively add the vertex farthest from existing centers
+        // Extra restarts do the same from random vertex, and the centers with the smallest radius win
+        long phaseStart = PhaseMetrics.start();
+        int firstCenter = findMostCentralVertex(distances, V);
+        comparisons += V;
+        phases.stop(PhaseMetrics.Phase.GREEDY, phaseStart);
+        phases.count(PhaseMetrics.Phase.GREEDY, V);
+
+        int[] starts = startVertex(V, firstCenter);
+        Restart best;
+        if (starts.length == 1) {
+            best = restart(distances, k, starts[0], phases);
+        } else {
+            best = runRestarts(distances, k, starts, phases);
+        }
+        comparisons += best.totalComparisons;
+        double radius = best.radius;
+        synchronized (this) {
+            bestCenters = best.centers;
         }
 
         // Returns execution time, comparison count, and final radius
         long endTime = System.currentTimeMillis();
         long executionTimeMs = endTime - startTime;
 
-        return new MethodResult(executionTimeMs, comparisons, radius);
+        return new MethodResult(executionTimeMs, comparisons, radius, phases);
     }
 
-    private int findMostCentralVertex(double[][] distances, int V, long comparisons) {
-        int mostCentral = 0;
-        double minTotalDistance = Double.POSITIVE_INFINITY;
-
-        for (int v = 0; v < V; v++) {
-            double totalDistance = 0;
-            for (int u = 0; u < V; u++) {
-                totalDistance += distances[v][u];
-            }
+    // The central vertex first, then distinct random vertex drawn from the seed
+    // StdRandom is shared by the whole program, so the draws happen here, on the calling thread, and not in the restarts
+    private int[] startVertex(int V, int firstCenter) {
+        int count = Math.max(1, Math.min(restarts, V));
+        int[] starts = new int[count];
+        starts[0] = firstCenter;
+        if (count == 1) {
+            return starts;
+        }
 
-            if (totalDistance < minTotalDistance) {
-                minTotalDistance = totalDistance;
-                mostCentral = v;
+        int[] drawn;
+        synchronized (StdRandom.class) {
+            StdRandom.setSeed(seed);
+            drawn = StdRandom.permutation(V, count);
+        }
+        int next = 1;
+        for (int v : drawn) {
+            if (v != firstCenter && next < count) {
+                starts[next++] = v;
             }
         }
-
-        return mostCentral;
+        return starts;
     }
 
-    private boolean isCenter(int vertex, int[] centers) {
-        for (int center : centers) {
-            if (center == vertex) {
-                return true;
+    // Restarts are independent and only read the shared matrix, so they run on the common pool
+    // On equal radius the restart with the smallest index wins, so the result does not depend on the scheduling
+    private Restart runRestarts(double[][] distances, int k, int[] starts, PhaseMetrics phases) {
+        List<Callable<Restart>> tasks = new ArrayList<>();
+        for (int start : starts) {
+            tasks.add(() -> restart(distances, k, start, phases));
+        }
+
+        Restart best = null;
+        long totalComparisons = 0;
+        for (Future<Restart> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+            try {
+                Restart result = future.get();
+                totalComparisons += result.totalComparisons;
+                if (best == null || result.radius < best.radius) {
+                    best = result;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Restarts interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Restart failed", e.getCause());
             }
         }
-        return false;
+        best.totalComparisons = totalComparisons;
+        return best;
     }
 
-    private double[][] initializeDistanceMatrix(EdgeWeightedGraph graph, long comparisons) {
-        int V = graph.V();
-        double[][] distances = new double[V][V];
+    // Farthest-first from the given vertex, followed by the local search until no swap improves the radius
+    private static Restart restart(double[][] distances, int k, int firstCenter, PhaseMetrics phases) {
+        int V = distances.length;
 
-        for (int i = 0; i < V; i++) {
-            for (int j = 0; j < V; j++) {
-                distances[i][j] = Double.POSITIVE_INFINITY;
-            }
-            distances[i][i] = 0.0;
-        }
+        long phaseStart = PhaseMetrics.start();
+        FarthestFirst greedy = new FarthestFirst();
+        int[] centers = greedy.select(V, k, firstCenter, FarthestFirst.fromMatrix(distances));
+        phases.stop(PhaseMetrics.Phase.GREEDY, phaseStart);
+        phases.count(PhaseMetrics.Phase.GREEDY, greedy.getComparisons());
 
-        for (Edge e : graph.edges()) {
-            int v = e.either();
-            int w = e.other(v);
-            distances[v][w] = e.weight();
-            distances[w][v] = e.weight();
-            comparisons += 2;
-        }
+        phaseStart = PhaseMetrics.start();
+        LocalSearch localSearch = new LocalSearch(distances);
+        double radius = localSearch.refine(centers);
+        phases.stop(PhaseMetrics.Phase.LOCAL_SEARCH, phaseStart);
+        phases.count(PhaseMetrics.Phase.LOCAL_SEARCH, localSearch.getComparisons());
 
-        return distances;
+        return new Restart(centers, radius, greedy.getComparisons() + localSearch.getComparisons());
     }
 
-    private long floydWarshall(double[][] distances, int V, long comparisons) {
-        for (int k = 0; k < V; k++) {
-            for (int i = 0; i < V; i++) {
-                for (int j = 0; j < V; j++) {
-                    if (distances[i][k] + distances[k][j] < distances[i][j]) {
-                        distances[i][j] = distances[i][k] + distances[k][j];
-                    }
-                    comparisons++;
-                }
-            }
+    private static class Restart {
+        final int[] centers;
+        final double radius;
+        // Comparisons of this restart, or of all of them once the best one is picked
+        long totalComparisons;
+
+        Restart(int[] centers, double radius, long totalComparisons) {
+            this.centers = centers;
+            this.radius = radius;
+            this.totalComparisons = totalComparisons;
         }
-        return comparisons;
     }
 
-    private double calculateRadius(int[] centers, int V, double[][] distances, long comparisons) {
-        double radius = 0.0;
+    // The vertex with the smallest sum of distances, found with one comparison per vertex
+    static int findMostCentralVertex(double[][] distances, int V) {
+        int mostCentral = 0;
+        double minTotalDistance = Double.POSITIVE_INFINITY;
 
         for (int v = 0; v < V; v++) {
-            double minDistanceToCenter = Double.POSITIVE_INFINITY;
-
-            for (int center : centers) {
-                minDistanceToCenter = Math.min(minDistanceToCenter, distances[v][center]);
-                comparisons++;
+            double totalDistance = 0;
+            for (int u = 0; u < V; u++) {
+                totalDistance += distances[v][u];
             }
 
-            radius = Math.max(radius, minDistanceToCenter);
+            if (totalDistance < minTotalDistance) {
+                minTotalDistance = totalDistance;
+                mostCentral = v;
+            }
         }
 
-        return radius;
+        return mostCentral;
     }
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Class used to compute all the smallest distances with a tiled Floyd-Warshall
+// The tiles are relaxed on the rows of the matrix itself, so no memory is needed beyond the result
+// Every round runs in three phases: the diagonal tile, then the tiles on its row and column, then all the remaining tiles
+// The tiles of the last two phases are independent, so they run in parallel
+public class BlockedFloydWarshallAllPairs implements AllPairsShortestPaths {
+    // 64 x 64 doubles use 32KB, so the three tiles of an update stay close to the L1/L2 caches
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+
+    private final ForkJoinPool pool;
+    private final int blockSize;
+
+    public BlockedFloydWarshallAllPairs() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BLOCK_SIZE);
+    }
+
+    public BlockedFloydWarshallAllPairs(ForkJoinPool pool, int blockSize) {
+        if (blockSize < 1)
+            throw new IllegalArgumentException("Block size must be positive");
+        this.pool = pool;
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public long compute(EdgeWeightedGraph graph, double[][] distances) {
+        int V = graph.V();
+        long comparisons = FloydWarshallAllPairs.initializeDistanceMatrix(graph, distances);
+        run(distances, V);
+        return comparisons + (long) V * V * V;
+    }
+
+    private void run(double[][] d, int V) {
+        int blocks = (V + blockSize - 1) / blockSize;
+
+        for (int kb = 0; kb < blocks; kb++) {
+            final int k = kb;
+
+            // Phase 1: the diagonal tile only depends on itself
+            update(d, V, k, k, k);
+
+            // Phase 2: tiles on the row and column of the diagonal depend only on it
+            List<RecursiveAction> phase2 = new ArrayList<>();
+            for (int b = 0; b < blocks; b++) {
+                if (b == k)
+                    continue;
+                final int other = b;
+                phase2.add(action(() -> {
+                    update(d, V, k, other, k);
+                    update(d, V, other, k, k);
+                }));
+            }
+            invokeAll(phase2);
+
+            // Phase 3: every other tile depends only on tiles of phase 2
+            List<RecursiveAction> phase3 = new ArrayList<>();
+            for (int ib = 0; ib < blocks; ib++) {
+                if (ib == k)
+                    continue;
+                final int rowBlock = ib;
+                phase3.add(action(() -> {
+                    for (int jb = 0; jb < blocks; jb++) {
+                        if (jb != k) {
+                            update(d, V, rowBlock, jb, k);
+                        }
+                    }
+                }));
+            }
+            invokeAll(phase3);
+        }
+    }
+
+    private void invokeAll(List<RecursiveAction> actions) {
+        if (actions.isEmpty())
+            return;
+        pool.invoke(action(() -> RecursiveAction.invokeAll(actions)));
+    }
+
+    private static RecursiveAction action(Runnable body) {
+        return new RecursiveAction() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected void compute() {
+                body.run();
+            }
+        };
+    }
+
+    // Relaxes the tile (ib, jb) through the vertex of the block kb
+    private void update(double[][] d, int V, int ib, int jb, int kb) {
+        int iEnd = Math.min(V, (ib + 1) * blockSize);
+        int jStart = jb * blockSize;
+        int jEnd = Math.min(V, jStart + blockSize);
+        int kEnd = Math.min(V, (kb + 1) * blockSize);
+
+        for (int k = kb * blockSize; k < kEnd; k++) {
+            double[] rowK = d[k];
+            for (int i = ib * blockSize; i < iEnd; i++) {
+                double[] rowI = d[i];
+                double ik = rowI[k];
+                if (ik == Double.POSITIVE_INFINITY)
+                    continue;
+                for (int j = jStart; j < jEnd; j++) {
+                    double candidate = ik + rowK[j];
+                    if (candidate < rowI[j]) {
+                        rowI[j] = candidate;
+                    }
+                }
+            }
+        }
+    }
+}
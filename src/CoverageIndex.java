@@ -0,0 +1,196 @@
+import java.util.Arrays;
+
+// Class used to keep, for a threshold radius, the set of vertex covered by each candidate center
+// Each set is a packed long[] bitset, so coverage queries run over V / 64 words instead of V distances
+// A vertex covers another when their distance is not above the threshold
+public class CoverageIndex {
+    private final int V;
+    private final int words;
+    private final long[][] covers;
+    private final int[] coverSize;
+
+    // All the pairs of vertex sorted by distance, shared by the copies of the index
+    private final Pairs pairs;
+    // Number of sorted pairs already inside the threshold
+    private int cursor;
+    private double threshold;
+
+    public CoverageIndex(double[][] distances, double threshold) {
+        this(new Pairs(distances), distances.length);
+        setThreshold(threshold);
+    }
+
+    private CoverageIndex(Pairs pairs, int V) {
+        this.V = V;
+        this.words = (V + 63) >>> 6;
+        this.pairs = pairs;
+        this.covers = new long[V][words];
+        this.coverSize = new int[V];
+        this.threshold = 0.0;
+
+        // Every vertex covers itself at any threshold
+        for (int v = 0; v < V; v++) {
+            covers[v][v >>> 6] |= 1L << v;
+            coverSize[v] = 1;
+        }
+    }
+
+    // Moves the threshold, updating only the pairs whose distance lies between the old and new values
+    public void setThreshold(double radius) {
+        int[] u = pairs.u;
+        int[] w = pairs.w;
+        double[] d = pairs.distance;
+
+        while (cursor < d.length && d[cursor] <= radius) {
+            set(u[cursor], w[cursor]);
+            cursor++;
+        }
+        while (cursor > 0 && d[cursor - 1] > radius) {
+            cursor--;
+            clear(u[cursor], w[cursor]);
+        }
+        threshold = radius;
+    }
+
+    // Independent copy at another threshold, so readers of this index are not disturbed
+    public CoverageIndex copyWithThreshold(double radius) {
+        CoverageIndex copy = new CoverageIndex(pairs, V);
+        for (int v = 0; v < V; v++) {
+            System.arraycopy(covers[v], 0, copy.covers[v], 0, words);
+        }
+        System.arraycopy(coverSize, 0, copy.coverSize, 0, V);
+        copy.cursor = cursor;
+        copy.threshold = threshold;
+        copy.setThreshold(radius);
+        return copy;
+    }
+
+    public double threshold() {
+        return threshold;
+    }
+
+    public int words() {
+        return words;
+    }
+
+    // Bitset of the vertex covered by the center, which by symmetry are also the centers that cover it
+    // The returned array is the index own storage and must not be modified
+    public long[] coverOf(int center) {
+        return covers[center];
+    }
+
+    public int coverSize(int center) {
+        return coverSize[center];
+    }
+
+    // Sorted distinct distances between the vertex that are not above the limit, including zero
+    public double[] distinctDistances(double limit) {
+        double[] d = pairs.distance;
+        double[] values = new double[d.length + 1];
+        int n = 0;
+        values[n++] = 0.0;
+        for (int i = 0; i < d.length && d[i] <= limit; i++) {
+            if (d[i] != values[n - 1]) {
+                values[n++] = d[i];
+            }
+        }
+        return Arrays.copyOf(values, n);
+    }
+
+    // Smallest distance between two vertex, zero included, that is not below the value, or infinity if there is none
+    // The optimal radius is always such a distance, so it is the best radius a lower bound can promise
+    public double ceilingDistance(double value) {
+        if (value <= 0.0) {
+            return 0.0;
+        }
+        double[] d = pairs.distance;
+        int low = 0;
+        int high = d.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (d[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < d.length ? d[low] : Double.POSITIVE_INFINITY;
+    }
+
+    // Mask of the valid bits of the last word
+    long lastWordMask() {
+        int bits = V - ((words - 1) << 6);
+        return bits == 64 ? -1L : (1L << bits) - 1;
+    }
+
+    private void set(int u, int w) {
+        covers[u][w >>> 6] |= 1L << w;
+        covers[w][u >>> 6] |= 1L << u;
+        coverSize[u]++;
+        coverSize[w]++;
+    }
+
+    private void clear(int u, int w) {
+        covers[u][w >>> 6] &= ~(1L << w);
+        covers[w][u >>> 6] &= ~(1L << u);
+        coverSize[u]--;
+        coverSize[w]--;
+    }
+
+    // Pairs of distinct vertex sorted by distance with a counting sort over the distinct values
+    private static class Pairs {
+        final int[] u;
+        final int[] w;
+        final double[] distance;
+
+        Pairs(double[][] distances) {
+            int V = distances.length;
+            long pairs = (long) V * (V - 1) / 2;
+            if (pairs > Integer.MAX_VALUE - 8)
+                throw new IllegalArgumentException("Too many pairs of vertex for a coverage index: " + V + " vertex");
+            int n = (int) pairs;
+
+            double[] values = new double[n];
+            int p = 0;
+            for (int i = 0; i < V; i++) {
+                for (int j = i + 1; j < V; j++) {
+                    values[p++] = distances[i][j];
+                }
+            }
+            Arrays.sort(values);
+            int distinct = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || values[i] != values[i - 1]) {
+                    values[distinct++] = values[i];
+                }
+            }
+
+            int[] start = new int[distinct + 1];
+            int[] rank = new int[n];
+            p = 0;
+            for (int i = 0; i < V; i++) {
+                for (int j = i + 1; j < V; j++) {
+                    int r = Arrays.binarySearch(values, 0, distinct, distances[i][j]);
+                    rank[p++] = r;
+                    start[r + 1]++;
+                }
+            }
+            for (int r = 0; r < distinct; r++) {
+                start[r + 1] += start[r];
+            }
+
+            u = new int[n];
+            w = new int[n];
+            distance = new double[n];
+            p = 0;
+            for (int i = 0; i < V; i++) {
+                for (int j = i + 1; j < V; j++) {
+                    int position = start[rank[p++]]++;
+                    u[position] = i;
+                    w[position] = j;
+                    distance[position] = distances[i][j];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+// Class used to implement an immutable graph in compressed sparse row (CSR) form
+// The neighbors of v are targets[offsets[v]] to targets[offsets[v + 1] - 1], with the weights at the same positions
+// Every undirected edge is stored once in each direction, in primitive arrays, so scans allocate nothing
+public class CsrGraph {
+    private final int V;
+    private final int centers;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    private CsrGraph(int V, int centers, int[] offsets, int[] targets, double[] weights) {
+        this.V = V;
+        this.centers = centers;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    // Compact copy of the adjacency lists of the graph
+    public static CsrGraph from(EdgeWeightedGraph graph) {
+        int V = graph.V();
+        int[] offsets = new int[V + 1];
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] = offsets[v] + graph.degree(v);
+        }
+
+        int[] targets = new int[offsets[V]];
+        double[] weights = new double[offsets[V]];
+        for (int v = 0; v < V; v++) {
+            int position = offsets[v];
+            for (Edge e : graph.adj(v)) {
+                targets[position] = e.other(v);
+                weights[position] = e.weight();
+                position++;
+            }
+        }
+
+        return new CsrGraph(V, graph.Centers(), offsets, targets, weights);
+    }
+
+    // Builds the graph straight from parallel arrays of edges, without creating Edge objects
+    // Only the first E positions of the arrays are read
+    public static CsrGraph fromEdges(int V, int centers, int[] from, int[] to, double[] weight, int E) {
+        if (V < 0)
+            throw new IllegalArgumentException("Number of vertices must be non-negative");
+
+        int[] offsets = new int[V + 1];
+        for (int i = 0; i < E; i++) {
+            validateVertex(from[i], V);
+            validateVertex(to[i], V);
+            if (Double.isNaN(weight[i]))
+                throw new IllegalArgumentException("Weight is NaN");
+            offsets[from[i] + 1]++;
+            offsets[to[i] + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+
+        int[] position = new int[V];
+        System.arraycopy(offsets, 0, position, 0, V);
+        int[] targets = new int[offsets[V]];
+        double[] weights = new double[offsets[V]];
+        for (int i = 0; i < E; i++) {
+            int v = from[i];
+            int w = to[i];
+            targets[position[v]] = w;
+            weights[position[v]++] = weight[i];
+            targets[position[w]] = v;
+            weights[position[w]++] = weight[i];
+        }
+
+        return new CsrGraph(V, centers, offsets, targets, weights);
+    }
+
+    private static void validateVertex(int v, int V) {
+        if (v < 0 || v >= V)
+            throw new IllegalArgumentException("vertex " + v + " is not between 0 and " + (V - 1));
+    }
+
+    // Same graph with the adjacency lists of EdgeWeightedGraph, for the code that works with Edge objects
+    public EdgeWeightedGraph toEdgeWeightedGraph() {
+        EdgeWeightedGraph graph = new EdgeWeightedGraph(V, centers);
+        for (int v = 0; v < V; v++) {
+            int selfLoops = 0;
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                // Each edge is stored in both directions, self loops twice in the same list
+                if (w > v || (w == v && selfLoops++ % 2 == 0)) {
+                    graph.addEdge(new Edge(v, w, weights[i]));
+                }
+            }
+        }
+        return graph;
+    }
+
+    public int V() {
+        return V;
+    }
+
+    // Number of undirected edges
+    public int E() {
+        return targets.length / 2;
+    }
+
+    public int Centers() {
+        return centers;
+    }
+
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    // The arrays below are the graph own storage and must not be modified
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    public double[] weights() {
+        return weights;
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Class used to compute all the smallest distances running Dijkstra from every vertex
+// Its cost is about V * E * log V, so it fits sparse graphs, and the sources are spread across the cores
+public class DijkstraAllPairs implements AllPairsShortestPaths {
+    // Number of sources solved by a single task before it stops splitting
+    private static final int SOURCES_PER_TASK = 8;
+
+    private final ForkJoinPool pool;
+
+    public DijkstraAllPairs() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public DijkstraAllPairs(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public long compute(EdgeWeightedGraph graph, double[][] distances) {
+        return compute(CsrGraph.from(graph), distances);
+    }
+
+    public long compute(CsrGraph graph, double[][] distances) {
+        return pool.invoke(new SourcesTask(graph, distances, 0, graph.V()));
+    }
+
+    // Fills the row with the smallest distances from the source and returns the comparisons made
+    // The search runs over the primitive arrays of the CSR graph, so it allocates nothing
+    public static long distancesFrom(CsrGraph graph, int source, double[] row, IndexMinHeap heap) {
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        double[] weights = graph.weights();
+        long comparisons = 0;
+
+        for (int v = 0; v < row.length; v++) {
+            row[v] = Double.POSITIVE_INFINITY;
+        }
+        row[source] = 0.0;
+
+        heap.clear();
+        heap.insertOrDecrease(source, 0.0);
+
+        while (!heap.isEmpty()) {
+            int v = heap.delMin();
+            double distV = row[v];
+
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                int w = targets[i];
+                double candidate = distV + weights[i];
+                if (candidate < row[w]) {
+                    row[w] = candidate;
+                    heap.insertOrDecrease(w, candidate);
+                }
+            }
+            comparisons += offsets[v + 1] - offsets[v];
+        }
+
+        return comparisons;
+    }
+
+    private static class SourcesTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final CsrGraph graph;
+        private final double[][] distances;
+        private final int from;
+        private final int to;
+
+        SourcesTask(CsrGraph graph, double[][] distances, int from, int to) {
+            this.graph = graph;
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= SOURCES_PER_TASK) {
+                // One heap per task, reused by all of its sources
+                IndexMinHeap heap = new IndexMinHeap(graph.V());
+                long comparisons = 0;
+                for (int s = from; s < to; s++) {
+                    comparisons += distancesFrom(graph, s, distances[s], heap);
+                }
+                return comparisons;
+            }
+
+            int mid = (from + to) >>> 1;
+            SourcesTask left = new SourcesTask(graph, distances, from, mid);
+            left.fork();
+            long right = new SourcesTask(graph, distances, mid, to).compute();
+            return right + left.join();
+        }
+    }
+}
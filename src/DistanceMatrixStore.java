@@ -0,0 +1,171 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+// Class used to keep the distance matrix of an instance on disk, next to the instance file
+// Layout: magic, version, V, bytes per value (4 or 8), SHA-256 of the instance file, then the matrix row by row
+// A stored matrix is only used while the hash still matches the instance, so editing the file invalidates it
+public class DistanceMatrixStore {
+    private static final int MAGIC = 0x4B434150; // "KCAP"
+    private static final int VERSION = 1;
+    private static final int HASH_BYTES = 32;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES + HASH_BYTES;
+    private static final String EXTENSION = ".apsp";
+    private static final long MAX_REGION = 1L << 30;
+
+    private final boolean singlePrecision;
+
+    public DistanceMatrixStore() {
+        this(true);
+    }
+
+    // With single precision the matrix is stored as floats whenever every distance fits a float exactly
+    public DistanceMatrixStore(boolean singlePrecision) {
+        this.singlePrecision = singlePrecision;
+    }
+
+    public static Path storePath(Path source) {
+        return source.resolveSibling(source.getFileName() + EXTENSION);
+    }
+
+    // Returns the stored matrix of the instance, or null when it is missing, stale or unreadable
+    public double[][] load(Path source, int V) {
+        Path store = storePath(source);
+        if (!Files.isRegularFile(store)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(store, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) == -1)
+                    break;
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != VERSION
+                    || header.getInt() != V) {
+                return null;
+            }
+            int valueBytes = header.getInt();
+            byte[] hash = new byte[HASH_BYTES];
+            header.get(hash);
+            if ((valueBytes != Float.BYTES && valueBytes != Double.BYTES) || !Arrays.equals(hash, hash(source))
+                    || channel.size() != HEADER_BYTES + (long) V * V * valueBytes) {
+                return null;
+            }
+
+            double[][] distances = new double[V][V];
+            float[] floats = valueBytes == Float.BYTES ? new float[V] : null;
+            long rowBytes = (long) V * valueBytes;
+            int rowsPerRegion = (int) Math.max(1, MAX_REGION / Math.max(rowBytes, 1));
+
+            // The payload is mapped a group of rows at a time and copied with bulk reads
+            for (int first = 0; first < V; first += rowsPerRegion) {
+                int rows = Math.min(rowsPerRegion, V - first);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + first * rowBytes, rows * rowBytes);
+                region.order(ByteOrder.LITTLE_ENDIAN);
+
+                if (floats == null) {
+                    DoubleBuffer values = region.asDoubleBuffer();
+                    for (int i = 0; i < rows; i++) {
+                        values.get(distances[first + i]);
+                    }
+                } else {
+                    FloatBuffer values = region.asFloatBuffer();
+                    for (int i = 0; i < rows; i++) {
+                        values.get(floats);
+                        double[] row = distances[first + i];
+                        for (int j = 0; j < V; j++) {
+                            row[j] = floats[j];
+                        }
+                    }
+                }
+            }
+            return distances;
+
+        } catch (IOException e) {
+            System.err.println("Error reading stored distances: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Writes the matrix next to the instance, replacing the previous file only once it is complete
+    public void save(Path source, double[][] distances) {
+        int V = distances.length;
+        int valueBytes = singlePrecision && fitsFloat(distances) ? Float.BYTES : Double.BYTES;
+        Path store = storePath(source);
+
+        try {
+            Path temporary = Files.createTempFile(store.toAbsolutePath().getParent(), store.getFileName().toString(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(V).putInt(valueBytes).put(hash(source));
+                header.flip();
+                writeFully(channel, header);
+
+                ByteBuffer row = ByteBuffer.allocateDirect(Math.max(V, 1) * valueBytes).order(ByteOrder.LITTLE_ENDIAN);
+                for (int i = 0; i < V; i++) {
+                    row.clear();
+                    for (int j = 0; j < V; j++) {
+                        if (valueBytes == Float.BYTES) {
+                            row.putFloat((float) distances[i][j]);
+                        } else {
+                            row.putDouble(distances[i][j]);
+                        }
+                    }
+                    row.flip();
+                    writeFully(channel, row);
+                }
+            }
+            Files.move(temporary, store, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException e) {
+            System.err.println("Error writing stored distances: " + e.getMessage());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // Floats are only used when every distance survives the round trip unchanged
+    private static boolean fitsFloat(double[][] distances) {
+        for (double[] row : distances) {
+            for (double d : row) {
+                if ((double) (float) d != d) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // SHA-256 of the instance file, read through a memory-mapped buffer
+    private static byte[] hash(Path source) throws IOException {
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size = channel.size();
+            for (long position = 0; position < size; position += MAX_REGION) {
+                digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAX_REGION, size - position)));
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
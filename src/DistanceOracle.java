@@ -0,0 +1,154 @@
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Class used to share the all-pairs shortest distances between the methods
+// Each graph pays the matrix computation only once while it stays in the cache
+public class DistanceOracle {
+    private static final int DEFAULT_CAPACITY = 2;
+    // Relative cost of a Dijkstra relaxation against a Floyd-Warshall one, heap work included
+    private static final double DIJKSTRA_COST_FACTOR = 4.0;
+
+    private final int capacity;
+    private final AllPairsShortestPaths backend;
+    private final AllPairsShortestPaths floydWarshall = new BlockedFloydWarshallAllPairs();
+    private final AllPairsShortestPaths dijkstra = new DijkstraAllPairs();
+    private final LinkedHashMap<EdgeWeightedGraph, Entry> cache;
+    // Instance file of each graph, used to find its matrix on disk
+    private final WeakHashMap<EdgeWeightedGraph, Path> sources = new WeakHashMap<>();
+    private volatile DistanceMatrixStore store;
+
+    public DistanceOracle() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DistanceOracle(int capacity) {
+        this(capacity, null);
+    }
+
+    // A null backend lets the oracle pick one for each graph based on its density
+    public DistanceOracle(int capacity, AllPairsShortestPaths backend) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        this.capacity = capacity;
+        this.backend = backend;
+
+        // Access ordered map, so the least recently used graph is evicted first
+        this.cache = new LinkedHashMap<EdgeWeightedGraph, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EdgeWeightedGraph, Entry> eldest) {
+                return size() > DistanceOracle.this.capacity;
+            }
+        };
+    }
+
+    // Keeps the computed matrices on disk, so later runs over the same instance files skip their computation
+    public void setStore(DistanceMatrixStore store) {
+        this.store = store;
+    }
+
+    // Remembers the file the graph was read from, which must not change while the graph is used
+    public synchronized void attachSource(EdgeWeightedGraph graph, Path source) {
+        sources.put(graph, source);
+    }
+
+    // Returns the smallest distances between all vertex, computing them on the first request
+    // The returned matrix is shared and must not be modified by the callers
+    public double[][] distances(EdgeWeightedGraph graph) {
+        return entry(graph).distances;
+    }
+
+    // Number of comparisons spent computing the matrix of the graph
+    public long comparisons(EdgeWeightedGraph graph) {
+        return entry(graph).comparisons;
+    }
+
+    // Charges the time and comparisons spent on the matrix of the graph to the APSP phase
+    public void recordDistances(EdgeWeightedGraph graph, PhaseMetrics phases) {
+        Entry entry = entry(graph);
+        phases.record(PhaseMetrics.Phase.APSP, entry.nanos, entry.comparisons);
+    }
+
+    // Removes the graph from the cache once no method needs its distances anymore
+    public synchronized void release(EdgeWeightedGraph graph) {
+        cache.remove(graph);
+        sources.remove(graph);
+    }
+
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    private Entry entry(EdgeWeightedGraph graph) {
+        Entry entry;
+        synchronized (this) {
+            entry = cache.get(graph);
+            if (entry == null) {
+                entry = new Entry();
+                cache.put(graph, entry);
+            }
+        }
+
+        // The matrix is computed holding only the lock of its own entry, so different graphs are computed at the same time
+        synchronized (entry) {
+            long start = PhaseMetrics.start();
+            if (entry.distances == null) {
+                entry.distances = loadStored(graph);
+                entry.nanos = PhaseMetrics.start() - start;
+            }
+            if (entry.distances == null) {
+                AllPairsShortestPaths backend = this.backend;
+                if (backend == null) {
+                    backend = isSparse(graph) ? dijkstra : floydWarshall;
+                }
+
+                double[][] distances = new double[graph.V()][graph.V()];
+                entry.comparisons = backend.compute(graph, distances);
+                entry.distances = distances;
+                entry.nanos = PhaseMetrics.start() - start;
+                saveStored(graph, distances);
+            }
+        }
+        return entry;
+    }
+
+    private double[][] loadStored(EdgeWeightedGraph graph) {
+        DistanceMatrixStore store = this.store;
+        Path source = source(graph);
+        return store == null || source == null ? null : store.load(source, graph.V());
+    }
+
+    private void saveStored(EdgeWeightedGraph graph, double[][] distances) {
+        DistanceMatrixStore store = this.store;
+        Path source = source(graph);
+        if (store != null && source != null) {
+            store.save(source, distances);
+        }
+    }
+
+    private synchronized Path source(EdgeWeightedGraph graph) {
+        return sources.get(graph);
+    }
+
+    // Checks if a V x V matrix of doubles takes at most half of the heap
+    public static boolean fitsInMemory(int V) {
+        return (long) V * V * Double.BYTES <= Runtime.getRuntime().maxMemory() / 2;
+    }
+
+    // Dijkstra from every source pays off when the graph is sparse, otherwise Floyd-Warshall is cheaper
+    // Both backends spread their work across the cores, so only the sequential costs are compared
+    static boolean isSparse(EdgeWeightedGraph graph) {
+        int V = graph.V();
+        if (V < 2)
+            return false;
+        double log2V = Math.log(V) / Math.log(2);
+        return DIJKSTRA_COST_FACTOR * 2.0 * graph.E() * log2V < (double) V * V;
+    }
+
+    private static class Entry {
+        double[][] distances;
+        long comparisons;
+        long nanos;
+    }
+}
@@ -0,0 +1,55 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Class used to keep a bounded number of distance rows computed with Dijkstra over a CSR graph
+// The least recently used row is dropped when the cache is full, so memory stays at capacity * V doubles
+public class DistanceRowCache implements FarthestFirst.DistanceRows {
+    private final CsrGraph graph;
+    private final IndexMinHeap heap;
+    private final LinkedHashMap<Integer, double[]> rows;
+    private long comparisons;
+    private long computedRows;
+
+    public DistanceRowCache(CsrGraph graph, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        this.graph = graph;
+        this.heap = new IndexMinHeap(graph.V());
+        this.rows = new LinkedHashMap<Integer, double[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, double[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Largest capacity whose rows fit in the given fraction of the heap, between 1 and the requested one
+    public static int capacityFor(int V, int requested, double heapFraction) {
+        long budget = (long) (Runtime.getRuntime().maxMemory() * heapFraction);
+        long fitting = budget / ((long) Math.max(V, 1) * Double.BYTES);
+        return (int) Math.max(1, Math.min(requested, fitting));
+    }
+
+    // Distances from the source to every vertex, computed on the first request
+    // The returned row is shared with the cache and must not be modified
+    @Override
+    public double[] row(int source) {
+        double[] row = rows.get(source);
+        if (row == null) {
+            row = new double[graph.V()];
+            comparisons += DijkstraAllPairs.distancesFrom(graph, source, row, heap);
+            computedRows++;
+            rows.put(source, row);
+        }
+        return row;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    // Number of single-source searches run so far, cache misses included
+    public long getComputedRows() {
+        return computedRows;
+    }
+}
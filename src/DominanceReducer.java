@@ -0,0 +1,125 @@
+import java.util.Arrays;
+
+// Class used to remove the candidate centers that another candidate can always replace
+// Only the radius between a floor and the threshold of the coverage matter: no solution is below the floor,
+// which comes from a lower bound, and the search only looks for solutions up to the threshold
+// Candidate u dominates w when d(u, v) <= max(d(w, v), floor) for every vertex v within the threshold of w
+// Then at every radius in that range u covers all that w covers, so swapping w for u never makes a solution
+// worse and w does not need to be tried as a center
+// Equivalent candidates dominate each other, only the one with the smallest index is kept
+public class DominanceReducer {
+    private final double[][] distances;
+    // Optional sorted rows: a dominator of w is within the floor of w, so only that prefix of its row is tried
+    private final SortedDistanceIndex sortedRows;
+    private int eliminated;
+    private long comparisons;
+
+    public DominanceReducer(double[][] distances) {
+        this(distances, null);
+    }
+
+    public DominanceReducer(double[][] distances, SortedDistanceIndex sortedRows) {
+        this.distances = distances;
+        this.sortedRows = sortedRows;
+    }
+
+    // Number of candidates removed by the last reduction
+    public int eliminated() {
+        return eliminated;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    // Returns the candidates that no other candidate dominates, in the same order
+    // With the floor at the threshold this is plain inclusion of the covered sets, valid for that radius only
+    // With a lower floor the result stays valid for every threshold between the floor and the current one
+    public int[] reduce(int[] candidates, CoverageIndex coverage, double floor) {
+        int n = candidates.length;
+        int words = coverage.words();
+        boolean setsOnly = floor >= coverage.threshold();
+        boolean[] dominated = new boolean[n];
+        int kept = 0;
+
+        // w covers itself, so u must reach w within max(d(w, w), floor), or within the threshold for plain inclusion
+        double reach = Math.min(floor, coverage.threshold());
+        int[] position = null;
+        if (sortedRows != null) {
+            position = new int[sortedRows.V()];
+            Arrays.fill(position, -1);
+            for (int a = 0; a < n; a++) {
+                position[candidates[a]] = a;
+            }
+        }
+
+        for (int a = 0; a < n; a++) {
+            int w = candidates[a];
+            long[] ballW = coverage.coverOf(w);
+            int sizeW = coverage.coverSize(w);
+            int tries = sortedRows == null ? n : sortedRows.countWithin(w, reach);
+
+            for (int b = 0; b < tries && !dominated[a]; b++) {
+                int u;
+                if (sortedRows == null) {
+                    u = candidates[b];
+                } else {
+                    u = sortedRows.kthNearest(w, b);
+                    if (position[u] < 0)
+                        continue;
+                }
+                int sizeU = coverage.coverSize(u);
+                if (u == w || sizeU < sizeW)
+                    continue;
+
+                // The set covered by w must be inside the one covered by u before any distance is compared
+                long[] ballU = coverage.coverOf(u);
+                boolean inside = true;
+                for (int i = 0; i < words && inside; i++) {
+                    inside = (ballW[i] & ~ballU[i]) == 0;
+                }
+                comparisons += words;
+                if (!inside || (!setsOnly && !dominates(u, w, ballW, floor)))
+                    continue;
+
+                // Equal sets with u also replaceable by w keep the smallest index only
+                boolean equivalent = sizeU == sizeW && (setsOnly || dominates(w, u, ballU, floor));
+                if (!equivalent || u < w) {
+                    dominated[a] = true;
+                }
+            }
+            if (!dominated[a]) {
+                kept++;
+            }
+        }
+
+        int[] survivors = new int[kept];
+        int next = 0;
+        for (int a = 0; a < n; a++) {
+            if (!dominated[a]) {
+                survivors[next++] = candidates[a];
+            }
+        }
+        eliminated = n - kept;
+        return survivors;
+    }
+
+    // Checks d(u, v) <= max(d(w, v), floor) for the vertex v covered by w
+    private boolean dominates(int u, int w, long[] ballW, double floor) {
+        double[] fromU = distances[u];
+        double[] fromW = distances[w];
+
+        for (int i = 0; i < ballW.length; i++) {
+            long bits = ballW[i];
+            while (bits != 0) {
+                int v = (i << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                comparisons++;
+                if (fromU[v] > Math.max(fromW[v], floor)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
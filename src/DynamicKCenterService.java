@@ -0,0 +1,133 @@
+// Class used to keep a K-Centers solution up to date while edges are added to the graph or made lighter
+// The distances and the centers are kept between the changes: a new or lighter edge (a, b) only shortens the
+// paths through it, so each pair is relaxed once through the edge in O(V^2) instead of recomputing all of them,
+// and the local search starts again from the previous centers instead of a new greedy selection
+// Weight increases and edge removals can make paths longer, which needs a full recomputation, so they are not offered
+public class DynamicKCenterService {
+    private final EdgeWeightedGraph graph;
+    private final int V;
+    // Own copy of the distances, the matrices of the oracle are shared and must not change
+    private final double[][] distances;
+    private final int[] centers;
+    private final LocalSearch localSearch;
+    private double radius;
+
+    public DynamicKCenterService(EdgeWeightedGraph graph) {
+        this(graph, new DistanceOracle());
+    }
+
+    // The first solution comes from the approximate method, after that the oracle is no longer used
+    public DynamicKCenterService(EdgeWeightedGraph graph, DistanceOracle oracle) {
+        if (!DistanceOracle.fitsInMemory(graph.V()))
+            throw new IllegalArgumentException("The distance matrix of the graph does not fit in memory");
+        this.graph = graph;
+        this.V = graph.V();
+
+        AverageMethod averageMethod = new AverageMethod(oracle);
+        MethodResult initial = averageMethod.execute(graph);
+        double[][] shared = oracle.distances(graph);
+        this.distances = new double[V][];
+        for (int v = 0; v < V; v++) {
+            distances[v] = shared[v].clone();
+        }
+        // The graph is about to change, so the cached matrix would become stale
+        oracle.release(graph);
+
+        this.centers = averageMethod.getBestCenters();
+        this.localSearch = new LocalSearch(distances);
+        this.radius = initial.radius;
+    }
+
+    public synchronized double radius() {
+        return radius;
+    }
+
+    public synchronized int[] centers() {
+        return centers.clone();
+    }
+
+    public synchronized double distance(int v, int w) {
+        return distances[v][w];
+    }
+
+    // Adds the edge to the graph and repairs the distances and the centers
+    public synchronized MethodResult addEdge(Edge e) {
+        int v = e.either();
+        int w = e.other(v);
+        if (e.weight() < 0)
+            throw new IllegalArgumentException("Edge weights must be non-negative");
+        graph.addEdge(e);
+        return update(v, w, e.weight());
+    }
+
+    // Lowers the weight of the edge between v and w
+    // Edges cannot change, so a parallel edge with the new weight is added; the heavier one is never on a shortest path
+    public synchronized MethodResult decreaseWeight(int v, int w, double weight) {
+        double current = Double.POSITIVE_INFINITY;
+        for (Edge e : graph.adj(v)) {
+            if (e.other(v) == w) {
+                current = Math.min(current, e.weight());
+            }
+        }
+        if (current == Double.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("There is no edge between " + v + " and " + w);
+        if (weight < 0 || weight > current)
+            throw new IllegalArgumentException("The new weight must be between 0 and the current weight " + current);
+
+        if (weight < current) {
+            graph.addEdge(new Edge(v, w, weight));
+        }
+        return update(v, w, weight);
+    }
+
+    private MethodResult update(int a, int b, double weight) {
+        long startTime = System.currentTimeMillis();
+        PhaseMetrics phases = new PhaseMetrics();
+
+        long phaseStart = PhaseMetrics.start();
+        long comparisons = relax(a, b, weight);
+        phases.stop(PhaseMetrics.Phase.APSP, phaseStart);
+        phases.count(PhaseMetrics.Phase.APSP, comparisons);
+
+        // Distances only went down, so the previous centers are still a good start and the radius cannot grow
+        phaseStart = PhaseMetrics.start();
+        long before = localSearch.getComparisons();
+        radius = localSearch.refine(centers);
+        long searchComparisons = localSearch.getComparisons() - before;
+        phases.stop(PhaseMetrics.Phase.LOCAL_SEARCH, phaseStart);
+        phases.count(PhaseMetrics.Phase.LOCAL_SEARCH, searchComparisons);
+
+        return new MethodResult(System.currentTimeMillis() - startTime, comparisons + searchComparisons, radius, phases);
+    }
+
+    // d(i, j) = min(d(i, j), d(i, a) + weight + d(b, j), d(i, b) + weight + d(a, j)), using the distances before the edge
+    // A row whose vertex gets closer to neither endpoint through the edge cannot improve, so it is skipped
+    // Only the pairs i <= j are computed and mirrored, which keeps the matrix exactly symmetric
+    private long relax(int a, int b, double weight) {
+        if (weight >= distances[a][b]) {
+            return 1;
+        }
+
+        double[] fromA = distances[a].clone();
+        double[] fromB = distances[b].clone();
+        long comparisons = V;
+
+        for (int i = 0; i < V; i++) {
+            double viaA = fromA[i] + weight; // i -> a -> b
+            double viaB = fromB[i] + weight; // i -> b -> a
+            if (viaA >= fromB[i] && viaB >= fromA[i])
+                continue;
+
+            double[] row = distances[i];
+            for (int j = i; j < V; j++) {
+                double d = Math.min(viaA + fromB[j], viaB + fromA[j]);
+                if (d < row[j]) {
+                    row[j] = d;
+                    distances[j][i] = d;
+                }
+            }
+            comparisons += V - i;
+        }
+        return comparisons;
+    }
+}
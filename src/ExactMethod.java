@@ -1,42 +1,126 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicBoolean;
-
-public class ExactMethod {
+import java.util.concurrent.atomic.LongAdder;
+
+public class ExactMethod implements ExactSolver {
+    // A node only forks its children while the worker has few queued tasks, so idle workers always find work to steal
+    private static final int SURPLUS_QUEUED_TASKS = 3;
+    private static final int TIMEOUT_CHECK_INTERVAL = 100;
+    // Shortest time between two progress events and between two checkpoint writes
+    private static final long PROGRESS_INTERVAL_MS = 1000;
+    private static final long CHECKPOINT_INTERVAL_MS = 10000;
+
+    private final DistanceOracle oracle;
+    private final int parallelism;
     private double[][] distances;
-    private double minRadius;
+    // Shared by all the workers, so every subtree prunes with the best radius found so far
+    private volatile double minRadius;
+    // Coverage strictly below the incumbent radius, replaced on every improvement
+    private volatile Bounds bounds;
+    // Set once the incumbent reaches the lower bound, which proves it optimal
+    private volatile boolean provenOptimal;
+    private double optimalBound;
+    private int eliminatedCandidates;
+    // Vertex left out of the radius, the farthest ones from their centers
+    private int outliers;
     private int[] bestCenters;
-    private long comparisons;
+    private final LongAdder comparisons;
     private AtomicBoolean timeoutOccurred;
     private long startTime;
-    private int timeoutCheckCounter;
+    private volatile ExactSearchListener listener;
+    private Path checkpointFile;
+
+    // The search is split in units, one per position of the first center in the vertex order
+    // Unit i holds C(m - 1 - i, k - 1) of the C(m, k) combinations of the m candidates, that share is its weight
+    private boolean[] completedUnits;
+    private double[] unitWeights;
+    private double explored;
+    private double lowerBound;
+    private long fingerprint;
+    private long lastProgressMs;
+    private long lastCheckpointMs;
 
     public ExactMethod() {
+        this(new DistanceOracle());
+    }
+
+    public ExactMethod(DistanceOracle oracle) {
+        this(oracle, Runtime.getRuntime().availableProcessors());
+    }
+
+    // With parallelism 1 the search runs entirely on the calling thread
+    public ExactMethod(DistanceOracle oracle, int parallelism) {
+        if (parallelism < 1)
+            throw new IllegalArgumentException("Parallelism must be positive");
+        this.oracle = oracle;
+        this.parallelism = parallelism;
+        comparisons = new LongAdder();
         timeoutOccurred = new AtomicBoolean(false);
     }
 
+    @Override
     public void signalTimeout() {
         timeoutOccurred.set(true);
     }
 
+    @Override
     public void resetTimeout() {
         timeoutOccurred.set(false);
     }
 
+    @Override
     public long getComparisons() {
-        return comparisons;
+        return comparisons.sum();
     }
 
+    @Override
     public double getBestRadius() {
         return minRadius;
     }
 
+    // Candidate centers the dominance reduction removed in the last search
+    public int getEliminatedCandidates() {
+        return eliminatedCandidates;
+    }
+
+    public synchronized int[] getBestCenters() {
+        return bestCenters == null ? new int[0] : bestCenters.clone();
+    }
+
+    @Override
+    public void setListener(ExactSearchListener listener) {
+        this.listener = listener;
+    }
+
+    // Searches the best radius once the given number of farthest vertex are left out, 0 by default
+    // A leaf is accepted when at most that many vertex are uncovered, and every bound of the search leaves room for them
+    public void setOutliers(int outliers) {
+        if (outliers < 0)
+            throw new IllegalArgumentException("Number of outliers must be non-negative");
+        this.outliers = outliers;
+    }
+
+    // File used to save the search when it is interrupted, and to resume it on the next run over the same instance
+    // It is deleted once a search finishes, a null file disables checkpoints
+    public void setCheckpoint(Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
     // Finds the exact solution to the K-Center problem but not in a polinomial time
+    @Override
     public MethodResult execute(EdgeWeightedGraph graph, double superiorLimit) {
-        timeoutCheckCounter = 0;
         resetTimeout();
 
         startTime = System.currentTimeMillis();
-        comparisons = 0;
+        comparisons.reset();
 
         // Inicializes the superior limit as the aproximate result from the average method
         minRadius = superiorLimit;
@@ -44,23 +128,114 @@ public class ExactMethod {
         int V = graph.V();
         int k = graph.Centers();
 
-        distances = initializeDistanceMatrix(graph);
-        comparisons = floydWarshall(distances, V);
+        PhaseMetrics phases = new PhaseMetrics();
+        distances = oracle.distances(graph);
+        long distanceComparisons = oracle.comparisons(graph);
+        comparisons.add(distanceComparisons);
+        oracle.recordDistances(graph, phases);
 
-        bestCenters = new int[k];
-        int[] currentCenters = new int[k];
+        long searchStart = PhaseMetrics.start();
 
+        synchronized (this) {
+            bestCenters = new int[k];
+        }
 
         // Find the most suitable vertex to be centers and order them
-        Integer[] vertexOrder = precomputeVertexOrder(V);
-
+        int[] vertexOrder = precomputeVertexOrder(V);
+        // The farthest-first bound relies on every vertex being served, which outliers break, so with outliers
+        // the bound comes from the sorted rows instead: some center serves ceil((V - z) / k) vertex within the optimum
+        // Building the rows costs more than the dominance pass they shorten, so they are only built for that bound
+        SortedDistanceIndex sortedRows = null;
+        if (outliers == 0) {
+            lowerBound = greedyLowerBound(V, k, vertexOrder);
+        } else {
+            sortedRows = new SortedDistanceIndex(distances);
+            comparisons.add(sortedRows.getComparisons());
+            lowerBound = sortedRows.lowerBound(k, outliers);
+        }
+        provenOptimal = false;
+
+        // Every solution the search looks for lies between the lower bound and the incumbent, so candidates that
+        // another one replaces at all those radius are never tried
+        CoverageIndex coverage = new CoverageIndex(distances, Math.nextDown(minRadius));
+        comparisons.add((long) V * coverage.words());
+        optimalBound = coverage.ceilingDistance(lowerBound);
+        DominanceReducer reducer = new DominanceReducer(distances, sortedRows);
+        int[] candidates = reducer.reduce(vertexOrder, coverage, Math.min(optimalBound, coverage.threshold()));
+        comparisons.add(reducer.getComparisons());
+        eliminatedCandidates = reducer.eliminated();
+        System.out.println("Dominance removed " + eliminatedCandidates + " of " + V + " candidate centers.");
+
+        // With fewer candidates than centers, all of them are taken and the other positions repeat one
+        int m = candidates.length;
+        int slots = Math.min(k, m);
+        int units = slots == 0 ? 0 : m - slots + 1;
+        completedUnits = new boolean[units];
+        unitWeights = unitWeights(m, slots, units);
+        explored = 0.0;
+        lastProgressMs = startTime;
+        lastCheckpointMs = startTime;
+        fingerprint = 31 * (31 * SearchCheckpoint.fingerprint(distances) + Arrays.hashCode(candidates)) + outliers;
+        resume(V, k);
+
+        coverage.setThreshold(Math.nextDown(minRadius));
+        bounds = new Bounds(coverage, candidates);
+
+        // No radius below the smallest distance at or above the lower bound is possible
+        if (minRadius <= optimalBound) {
+            provenOptimal = true;
+        }
 
         // Analyze all combinations with the improvements made before until the best solution is found or the time is over
-        try {
-            findBestCentersOrdered(0, 0, currentCenters, k, V, vertexOrder);
-        } catch (InterruptedException e) {
+        List<SubtreeTask> pending = new ArrayList<>();
+        if (units == 0) {
+            pending.add(new SubtreeTask(0, 0, new int[slots], slots, V, candidates, -1));
+        }
+        for (int unit = 0; unit < units; unit++) {
+            if (!completedUnits[unit]) {
+                int[] prefix = new int[slots];
+                prefix[0] = candidates[unit];
+                pending.add(new SubtreeTask(unit + 1, 1, prefix, slots, V, candidates, unit));
+            }
+        }
+
+        if (provenOptimal) {
+            pending.clear();
+        }
+        if (parallelism == 1) {
+            for (SubtreeTask task : pending) {
+                if (timeoutOccurred.get() || provenOptimal)
+                    break;
+                task.search();
+            }
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(pending)));
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        if (provenOptimal) {
+            // The units left can only hold solutions as good as the incumbent
+            synchronized (this) {
+                explored = 1.0;
+            }
+            System.out.println("The best solution reached the lower bound, so it is optimal.");
+        }
+
+        finishCheckpoint();
+        ExactSearchListener listener = this.listener;
+        if (listener != null) {
+            listener.onProgress(explored, timeoutOccurred.get() ? lowerBound : minRadius, minRadius);
+        }
+
+        if (timeoutOccurred.get()) {
             System.out.println("Search interrupted after timeout. Using best solution found so far.");
         }
+        phases.stop(PhaseMetrics.Phase.EXACT_SEARCH, searchStart);
+        phases.count(PhaseMetrics.Phase.EXACT_SEARCH, comparisons.sum() - distanceComparisons);
 
         long endTime = System.currentTimeMillis();
         long executionTimeMs = endTime - startTime;
@@ -71,10 +246,10 @@ public class ExactMethod {
             System.out.println("Best solution found: " + minRadius);
         }
 
-        return new MethodResult(executionTimeMs, comparisons, minRadius);
+        return new MethodResult(executionTimeMs, comparisons.sum(), minRadius, phases);
     }
 
-    private Integer[] precomputeVertexOrder(int V) {
+    private int[] precomputeVertexOrder(int V) {
         Integer[] order = new Integer[V];
         double[] centrality = new double[V];
 
@@ -88,94 +263,383 @@ public class ExactMethod {
         }
 
         Arrays.sort(order, (a, b) -> Double.compare(centrality[a], centrality[b]));
-        return order;
-    }
-
-    private double[][] initializeDistanceMatrix(EdgeWeightedGraph graph) {
-        int V = graph.V();
-        double[][] distances = new double[V][V];
 
+        int[] result = new int[V];
         for (int i = 0; i < V; i++) {
-            for (int j = 0; j < V; j++) {
-                distances[i][j] = Double.POSITIVE_INFINITY;
-            }
-            distances[i][i] = 0.0;
+            result[i] = order[i];
         }
+        return result;
+    }
 
-        for (Edge e : graph.edges()) {
-            int v = e.either();
-            int w = e.other(v);
-            distances[v][w] = e.weight();
-            distances[w][v] = e.weight();
-            comparisons += 2;
+    // Half the farthest-first radius, the optimum can not be below it
+    private double greedyLowerBound(int V, int k, int[] vertexOrder) {
+        if (V == 0) {
+            return 0.0;
         }
+        FarthestFirst greedy = new FarthestFirst();
+        greedy.select(V, k, vertexOrder[0], FarthestFirst.fromMatrix(distances));
+        comparisons.add(greedy.getComparisons());
+        return greedy.lowerBound();
+    }
 
-        return distances;
+    // C(m - 1 - i, k - 1) / C(m, k) for every unit, from the ratio between consecutive units to avoid overflow
+    private static double[] unitWeights(int m, int k, int units) {
+        double[] weights = new double[units];
+        if (units == 0) {
+            return weights;
+        }
+        weights[0] = (double) k / m;
+        for (int i = 0; i + 1 < units; i++) {
+            weights[i + 1] = weights[i] * (m - i - k) / (m - 1 - i);
+        }
+        return weights;
     }
 
-    private long floydWarshall(double[][] distances, int V) {
-        long localComparisons = 0;
-        for (int k = 0; k < V; k++) {
-            for (int i = 0; i < V; i++) {
-                for (int j = 0; j < V; j++) {
-                    if (distances[i][k] + distances[k][j] < distances[i][j]) {
-                        distances[i][j] = distances[i][k] + distances[k][j];
-                    }
-                    localComparisons++;
+    // Starts from the checkpoint of a previous run over the same instance, skipping its finished units
+    private void resume(int V, int k) {
+        if (checkpointFile == null) {
+            return;
+        }
+        SearchCheckpoint checkpoint = SearchCheckpoint.load(checkpointFile);
+        if (checkpoint == null || !checkpoint.matches(V, k, fingerprint, completedUnits.length)) {
+            return;
+        }
+
+        synchronized (this) {
+            if (checkpoint.radius < minRadius && checkpoint.centers.length == k) {
+                minRadius = checkpoint.radius;
+                bestCenters = checkpoint.centers.clone();
+            }
+            for (int unit = 0; unit < completedUnits.length; unit++) {
+                if (checkpoint.completed[unit]) {
+                    completedUnits[unit] = true;
+                    explored += unitWeights[unit];
                 }
             }
         }
-        return localComparisons;
+        System.out.println(String.format("Resuming from checkpoint: %.1f%% explored, best %.1f",
+                100 * explored, minRadius));
     }
 
-    private void findBestCentersOrdered(int start, int index, int[] centers, int k, int V, Integer[] vertexOrder)
-            throws InterruptedException {
-        if (++timeoutCheckCounter % 100 == 0 && timeoutOccurred.get()) {
-            throw new InterruptedException("Time limit exceeded");
+    // Records a fully enumerated unit, publishing the progress and saving the checkpoint when they are due
+    private synchronized void completeUnit(int unit) {
+        completedUnits[unit] = true;
+        explored += unitWeights[unit];
+
+        long now = System.currentTimeMillis();
+        ExactSearchListener listener = this.listener;
+        if (listener != null && now - lastProgressMs >= PROGRESS_INTERVAL_MS) {
+            lastProgressMs = now;
+            listener.onProgress(explored, lowerBound, minRadius);
+        }
+        if (checkpointFile != null && now - lastCheckpointMs >= CHECKPOINT_INTERVAL_MS) {
+            lastCheckpointMs = now;
+            saveCheckpoint();
         }
+    }
 
-        if (index == k) {
-            double radius = calculateRadius(centers, V);
+    // An interrupted search keeps its checkpoint for the next run, a finished one has no use for it
+    private synchronized void finishCheckpoint() {
+        if (checkpointFile == null) {
+            return;
+        }
+        if (timeoutOccurred.get()) {
+            saveCheckpoint();
+        } else {
+            try {
+                Files.deleteIfExists(checkpointFile);
+            } catch (IOException e) {
+                System.err.println("Error deleting checkpoint: " + e.getMessage());
+            }
+        }
+    }
 
-            if (radius < minRadius) {
-                minRadius = radius;
-                System.arraycopy(centers, 0, bestCenters, 0, k);
-                System.out.println("New best solution: " + radius);
+    private synchronized void saveCheckpoint() {
+        new SearchCheckpoint(distances.length, bestCenters.length, fingerprint, minRadius, bestCenters.clone(),
+                completedUnits.clone()).save(checkpointFile);
+    }
+
+    // Keeps the new solution only if no other worker found a better one in the meantime
+    private synchronized void offerSolution(double radius, int[] centers) {
+        if (radius < minRadius) {
+            minRadius = radius;
+            bounds = bounds.withCoverage(bounds.coverage.copyWithThreshold(Math.nextDown(radius)));
+            System.arraycopy(centers, 0, bestCenters, 0, centers.length);
+            Arrays.fill(bestCenters, centers.length, bestCenters.length, centers.length > 0 ? centers[0] : 0);
+            if (radius <= optimalBound) {
+                provenOptimal = true;
+            }
+            System.out.println("New best solution: " + radius);
+
+            ExactSearchListener listener = this.listener;
+            if (listener != null) {
+                listener.onIncumbent(radius, centers.clone(), System.currentTimeMillis() - startTime);
             }
-            return;
         }
+    }
 
-        for (int i = start; i < V; i++) {
-            centers[index] = vertexOrder[i];
+    // Coverage at the strict incumbent threshold, with the union and the largest cover of every suffix of the
+    // vertex order, which are the centers a subtree may still choose
+    private static class Bounds {
+        final CoverageIndex coverage;
+        final int[] vertexOrder;
+        // Vertex of each suffix of the order, the same for every threshold
+        final long[][] suffixMembers;
+        final long[][] suffixCover;
+        final int[] suffixMaxCover;
+
+        Bounds(CoverageIndex coverage, int[] vertexOrder) {
+            this(coverage, vertexOrder, members(vertexOrder, coverage.words()));
+        }
 
-            int nextStart = i + 1;
+        Bounds(CoverageIndex coverage, int[] vertexOrder, long[][] suffixMembers) {
+            this.coverage = coverage;
+            this.vertexOrder = vertexOrder;
+            this.suffixMembers = suffixMembers;
+            int V = vertexOrder.length;
+            int words = coverage.words();
+            suffixCover = new long[V + 1][words];
+            suffixMaxCover = new int[V + 1];
+            for (int i = V - 1; i >= 0; i--) {
+                long[] ball = coverage.coverOf(vertexOrder[i]);
+                for (int w = 0; w < words; w++) {
+                    suffixCover[i][w] = suffixCover[i + 1][w] | ball[w];
+                }
+                suffixMaxCover[i] = Math.max(suffixMaxCover[i + 1], coverage.coverSize(vertexOrder[i]));
+            }
+        }
 
-            findBestCentersOrdered(nextStart, index + 1, centers, k, V, vertexOrder);
+        // Same suffixes at a lower threshold
+        Bounds withCoverage(CoverageIndex coverage) {
+            return new Bounds(coverage, vertexOrder, suffixMembers);
+        }
+
+        private static long[][] members(int[] vertexOrder, int words) {
+            int V = vertexOrder.length;
+            long[][] members = new long[V + 1][words];
+            for (int i = V - 1; i >= 0; i--) {
+                System.arraycopy(members[i + 1], 0, members[i], 0, words);
+                members[i][vertexOrder[i] >>> 6] |= 1L << vertexOrder[i];
+            }
+            return members;
         }
     }
 
-    private double calculateRadius(int[] centers, int V) {
-        double radius = 0.0;
+    // Task that enumerates all the combinations that extend a fixed prefix of centers
+    private class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int start;
+        private final int index;
+        private final int[] centers;
+        private final int k;
+        private final int V;
+        private final int[] vertexOrder;
+        // Unit of the progress this task enumerates entirely, or -1 for the tasks inside a unit
+        private final int unit;
+        // Vertex covered by the first i chosen centers, for every depth i of the current path
+        private final long[][] chosenCover;
+        private final long lastWordMask;
+        // Centers already claimed by the vertex of the packing bound
+        private final long[] claimed;
+        private long localComparisons;
+        private int timeoutCheckCounter;
+
+        SubtreeTask(int start, int index, int[] centers, int k, int V, int[] vertexOrder, int unit) {
+            this.start = start;
+            this.index = index;
+            this.centers = centers;
+            this.k = k;
+            this.V = V;
+            this.vertexOrder = vertexOrder;
+            this.unit = unit;
+
+            CoverageIndex coverage = bounds.coverage;
+            int words = coverage.words();
+            this.lastWordMask = coverage.lastWordMask();
+            this.chosenCover = new long[k + 1][words];
+            this.claimed = new long[words];
+            for (int i = 0; i < index; i++) {
+                long[] ball = coverage.coverOf(centers[i]);
+                for (int w = 0; w < words; w++) {
+                    chosenCover[i + 1][w] = chosenCover[i][w] | ball[w];
+                }
+            }
+        }
+
+        @Override
+        protected void compute() {
+            search();
+        }
 
-        for (int v = 0; v < V; v++) {
-            double minDistanceToCenter = Double.POSITIVE_INFINITY;
+        void search() {
+            try {
+                findBestCentersOrdered(start, index);
+                // A unit whose children stopped early is not finished, even though it returned normally
+                if (unit >= 0 && !timeoutOccurred.get() && !provenOptimal) {
+                    completeUnit(unit);
+                }
+            } catch (InterruptedException e) {
+                // The other workers see the same flags and stop on their own
+            } finally {
+                comparisons.add(localComparisons);
+            }
+        }
 
-            for (int center : centers) {
-                minDistanceToCenter = Math.min(minDistanceToCenter, distances[v][center]);
-                comparisons++;
+        private void findBestCentersOrdered(int start, int index) throws InterruptedException {
+            if (++timeoutCheckCounter % TIMEOUT_CHECK_INTERVAL == 0) {
+                comparisons.add(localComparisons);
+                localComparisons = 0;
+                if (timeoutOccurred.get()) {
+                    throw new InterruptedException("Time limit exceeded");
+                }
+                if (provenOptimal) {
+                    throw new InterruptedException("Optimal solution found");
+                }
             }
 
-            if (minDistanceToCenter > minRadius) {
-                return Double.POSITIVE_INFINITY;
+            Bounds bounds = ExactMethod.this.bounds;
+            long[] chosen = chosenCover[index];
+            int words = chosen.length;
+
+            if (index == k) {
+                // Word level test first, only the sets that cover everything below the incumbent get their radius computed
+                localComparisons += words;
+                if (outliers == 0 ? !isFull(chosen) : uncoveredCount(chosen) > outliers) {
+                    return;
+                }
+
+                double radius = outliers == 0 ? calculateRadius(centers, minRadius)
+                        : OutliersMethod.radiusWithOutliers(distances, centers, outliers);
+
+                if (radius < minRadius) {
+                    offerSolution(radius, centers);
+                }
+                return;
             }
 
-            radius = Math.max(radius, minDistanceToCenter);
+            if (cannotComplete(bounds, chosen, start, k - index)) {
+                return;
+            }
 
-            if (radius > minRadius) {
-                return Double.POSITIVE_INFINITY;
+            // The remaining positions must still fit in the rest of the order
+            int last = vertexOrder.length - (k - index);
+
+            if (index < k - 1 && inForkJoinPool()
+                    && ForkJoinTask.getSurplusQueuedTaskCount() <= SURPLUS_QUEUED_TASKS) {
+                // Hand the children to the pool so idle workers can steal them
+                SubtreeTask[] children = new SubtreeTask[last - start + 1];
+                for (int i = start; i <= last; i++) {
+                    int[] prefix = Arrays.copyOf(centers, k);
+                    prefix[index] = vertexOrder[i];
+                    children[i - start] = new SubtreeTask(i + 1, index + 1, prefix, k, V, vertexOrder, -1);
+                }
+                invokeAll(children);
+                return;
+            }
+
+            long[] next = chosenCover[index + 1];
+            for (int i = start; i <= last; i++) {
+                centers[index] = vertexOrder[i];
+
+                long[] ball = bounds.coverage.coverOf(vertexOrder[i]);
+                for (int w = 0; w < words; w++) {
+                    next[w] = chosen[w] | ball[w];
+                }
+                localComparisons += words;
+
+                int nextStart = i + 1;
+
+                findBestCentersOrdered(nextStart, index + 1);
             }
         }
 
-        return radius;
+        // A subtree is cut when no completion can have a radius below the incumbent
+        private boolean cannotComplete(Bounds bounds, long[] chosen, int start, int free) {
+            long[] reachable = bounds.suffixCover[start];
+            int words = chosen.length;
+            int uncovered = 0;
+
+            // More vertex out of reach of the chosen centers and of every center still selectable than can be left out
+            int unreachable = 0;
+            for (int w = 0; w < words; w++) {
+                long full = w == words - 1 ? lastWordMask : -1L;
+                unreachable += Long.bitCount(~(chosen[w] | reachable[w]) & full);
+                if (unreachable > outliers) {
+                    localComparisons += w + 1;
+                    return true;
+                }
+                uncovered += Long.bitCount(~chosen[w] & full);
+            }
+            localComparisons += words;
+
+            // More vertex left than the free positions can cover even with the largest balls
+            if (uncovered > (long) free * bounds.suffixMaxCover[start] + outliers) {
+                return true;
+            }
+
+            return packingBound(bounds, chosen, start, free + outliers) > free + outliers;
+        }
+
+        // Counts uncovered vertex that share no selectable center, each of them needs a center of its own or is left out
+        // This is a feasible solution of the dual of the covering LP, so it never exceeds the centers needed
+        // Stops as soon as the count passes the limit
+        private int packingBound(Bounds bounds, long[] chosen, int start, int free) {
+            long[] members = bounds.suffixMembers[start];
+            int words = chosen.length;
+            Arrays.fill(claimed, 0L);
+            int packed = 0;
+
+            for (int w = 0; w < words; w++) {
+                long full = w == words - 1 ? lastWordMask : -1L;
+                long bits = ~chosen[w] & full;
+                while (bits != 0) {
+                    int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+
+                    long[] ball = bounds.coverage.coverOf(u);
+                    boolean disjoint = true;
+                    for (int i = 0; i < words && disjoint; i++) {
+                        disjoint = (ball[i] & members[i] & claimed[i]) == 0;
+                    }
+                    localComparisons += words;
+                    if (!disjoint)
+                        continue;
+
+                    if (++packed > free) {
+                        return packed;
+                    }
+                    for (int i = 0; i < words; i++) {
+                        claimed[i] |= ball[i] & members[i];
+                    }
+                }
+            }
+            return packed;
+        }
+
+        private int uncoveredCount(long[] cover) {
+            int words = cover.length;
+            int uncovered = 0;
+            for (int w = 0; w < words; w++) {
+                long full = w == words - 1 ? lastWordMask : -1L;
+                uncovered += Long.bitCount(~cover[w] & full);
+            }
+            return uncovered;
+        }
+
+        private boolean isFull(long[] cover) {
+            int words = cover.length;
+            for (int w = 0; w < words - 1; w++) {
+                if (cover[w] != -1L) {
+                    return false;
+                }
+            }
+            return words == 0 || cover[words - 1] == lastWordMask;
+        }
+
+        private double calculateRadius(int[] centers, double bound) {
+            localComparisons += (long) V * k;
+            return RadiusKernels.DEFAULT.radius(distances, centers, bound);
+        }
     }
-}
\ No newline at end of file
+}
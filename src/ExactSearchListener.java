@@ -0,0 +1,10 @@
+// Interface used to follow an exact search while it runs
+// The calls come from the search threads, so implementations must be thread safe and return quickly
+public interface ExactSearchListener {
+    // A better solution was found, the centers array is a copy the listener may keep
+    void onIncumbent(double radius, int[] centers, long elapsedMs);
+
+    // Share of the search space already ruled out, between 0 and 1, and the largest radius proven infeasible or
+    // known to be below the optimum
+    void onProgress(double fractionExplored, double lowerBound, double incumbent);
+}
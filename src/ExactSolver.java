@@ -0,0 +1,17 @@
+// Interface implemented by the methods that search the exact solution under a time limit
+public interface ExactSolver {
+    // Finds the exact radius, using the approximate result as the superior limit
+    MethodResult execute(EdgeWeightedGraph graph, double superiorLimit);
+
+    void signalTimeout();
+
+    void resetTimeout();
+
+    long getComparisons();
+
+    // Best radius found so far, also valid while the search is still running
+    double getBestRadius();
+
+    // Receives the improvements and the progress of the next searches, null removes the listener
+    void setListener(ExactSearchListener listener);
+}
@@ -0,0 +1,117 @@
+// Class used to implement the greedy farthest-first traversal (Gonzalez), a 2-approximation of the K-Centers problem
+// It keeps the distance from every vertex to its nearest chosen center in a primitive array, which is only
+// updated against the newest center, so each round costs O(V) and needs a single row of distances
+public class FarthestFirst {
+    // Source of the distances from a center to every vertex
+    // The returned row only has to stay valid until the next call
+    public interface DistanceRows {
+        double[] row(int center);
+    }
+
+    private final RadiusKernel kernel;
+    private double[] minDist;
+    // Radius of the first i + 1 centers of the last selection, the order is nested so every prefix is a greedy answer
+    private double[] prefixRadius;
+    private int centersChosen;
+    private long comparisons;
+
+    public FarthestFirst() {
+        this(RadiusKernels.DEFAULT);
+    }
+
+    public FarthestFirst(RadiusKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    // Distance from every vertex to its nearest center after the last selection
+    public double[] minDistances() {
+        return minDist;
+    }
+
+    // Radius of the last selection, the largest distance from a vertex to its nearest center
+    public double radius() {
+        double radius = 0.0;
+        for (double d : minDist) {
+            radius = Math.max(radius, d);
+        }
+        return radius;
+    }
+
+    // Lower bound of the optimal radius for the k centers of the last selection
+    // With fewer centers than vertex, the k centers and the farthest vertex left are pairwise at least the radius
+    // apart, so any k centers serve two of them with the same center and the optimum is at least half the radius
+    public double lowerBound() {
+        return minDist.length > 0 && centersChosen < minDist.length ? radius() / 2 : 0.0;
+    }
+
+    // Radius of the greedy answer with the first count centers of the last selection
+    public double prefixRadius(int count) {
+        return count == 0 ? Double.POSITIVE_INFINITY : prefixRadius[count - 1];
+    }
+
+    // Chooses up to k centers starting from the first one, always adding the vertex farthest from the chosen ones
+    public int[] select(int V, int k, int firstCenter, DistanceRows rows) {
+        int count = Math.min(k, V);
+        int[] centers = new int[count];
+        boolean[] isCenter = new boolean[V];
+
+        minDist = new double[V];
+        prefixRadius = new double[count];
+        centersChosen = count;
+        for (int v = 0; v < V; v++) {
+            minDist[v] = Double.POSITIVE_INFINITY;
+        }
+
+        if (count == 0) {
+            return centers;
+        }
+
+        int next = firstCenter;
+        for (int i = 0; i < count; i++) {
+            centers[i] = next;
+            isCenter[next] = true;
+
+            // Only the newest center can bring a vertex closer
+            double[] row = rows.row(next);
+            int farthestVertex = -1;
+            double maxMinDistance = -1;
+
+            kernel.relax(minDist, row);
+            for (int v = 0; v < V; v++) {
+                if (!isCenter[v] && minDist[v] > maxMinDistance) {
+                    maxMinDistance = minDist[v];
+                    farthestVertex = v;
+                }
+            }
+            comparisons += 2L * V;
+
+            prefixRadius[i] = Math.max(maxMinDistance, 0.0);
+            next = farthestVertex;
+        }
+
+        return centers;
+    }
+
+    // Rows read straight from a full distance matrix, which is symmetric
+    public static DistanceRows fromMatrix(double[][] distances) {
+        return center -> distances[center];
+    }
+
+    // Rows computed on demand with a single-source Dijkstra, for graphs too large for a V x V matrix
+    public static DistanceRows fromGraph(EdgeWeightedGraph graph) {
+        return fromGraph(CsrGraph.from(graph));
+    }
+
+    public static DistanceRows fromGraph(CsrGraph graph) {
+        double[] row = new double[graph.V()];
+        IndexMinHeap heap = new IndexMinHeap(graph.V());
+        return center -> {
+            DijkstraAllPairs.distancesFrom(graph, center, row, heap);
+            return row;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+// Class used to compute all the smallest distances with the Floyd-Warshall algorithm
+// Its cost is always V^3, so it fits dense graphs
+public class FloydWarshallAllPairs implements AllPairsShortestPaths {
+    public FloydWarshallAllPairs() {
+    }
+
+    @Override
+    public long compute(EdgeWeightedGraph graph, double[][] distances) {
+        int V = graph.V();
+        long comparisons = initializeDistanceMatrix(graph, distances);
+
+        for (int k = 0; k < V; k++) {
+            double[] rowK = distances[k];
+            for (int i = 0; i < V; i++) {
+                double[] rowI = distances[i];
+                double ik = rowI[k];
+                if (ik == Double.POSITIVE_INFINITY) {
+                    comparisons += V;
+                    continue;
+                }
+                for (int j = 0; j < V; j++) {
+                    if (ik + rowK[j] < rowI[j]) {
+                        rowI[j] = ik + rowK[j];
+                    }
+                }
+                comparisons += V;
+            }
+        }
+        return comparisons;
+    }
+
+    // Puts the edge weights on the matrix
+    // GraphReader already drops the repeated pairs of an instance; graphs built in code that still repeat one keep
+    // the lightest edge, the one Dijkstra would follow
+    static long initializeDistanceMatrix(EdgeWeightedGraph graph, double[][] distances) {
+        int V = graph.V();
+        long comparisons = 0;
+
+        for (int i = 0; i < V; i++) {
+            for (int j = 0; j < V; j++) {
+                distances[i][j] = Double.POSITIVE_INFINITY;
+            }
+            distances[i][i] = 0.0;
+        }
+
+        // Each edge shows up once in the list of each endpoint
+        CsrGraph csr = CsrGraph.from(graph);
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        double[] weights = csr.weights();
+        for (int v = 0; v < V; v++) {
+            double[] row = distances[v];
+            for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+                if (weights[i] < row[targets[i]]) {
+                    row[targets[i]] = weights[i];
+                }
+            }
+            comparisons += offsets[v + 1] - offsets[v];
+        }
+
+        return comparisons;
+    }
+}
@@ -1,9 +1,19 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
 // Class responsible for reading the files and building the graphs
+// The file is memory-mapped and the numbers are parsed straight from its bytes, so no String is created per line
 public class GraphReader {
+    // Largest region mapped at once, files bigger than that are mapped one region after the other
+    private static final long MAX_REGION = 1L << 30;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
     private String filePath;
 
     public GraphReader(String filePath) {
@@ -14,28 +24,15 @@ public class GraphReader {
     public EdgeWeightedGraph execute() {
         EdgeWeightedGraph graph = null;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String[] firstLine = reader.readLine().trim().split("\\s+");
-            int V = Integer.parseInt(firstLine[0]); // número de vértices
-            int centers = Integer.parseInt(firstLine[2]); // número de centros
+        try {
+            EdgeList edges = read();
 
             // Instance a graph based on the number of vertex and centers
-            graph = new EdgeWeightedGraph(V, centers);
+            graph = new EdgeWeightedGraph(edges.V, edges.centers);
 
             // Add the edges based on the file
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] edgeData = line.trim().split("\\s+");
-                if (edgeData.length >= 3) {
-                    // Test index is 1 to V instead of 0 to V - 1
-                    int v = Integer.parseInt(edgeData[0]) - 1;
-                    int w = Integer.parseInt(edgeData[1]) - 1;
-                    double weight = Double.parseDouble(edgeData[2]);
-
-                    // Create and add Edge to the graph
-                    Edge edge = new Edge(v, w, weight);
-                    graph.addEdge(edge);
-                }
+            for (int i = 0; i < edges.count; i++) {
+                graph.addEdge(new Edge(edges.from[i], edges.to[i], edges.weights[i]));
             }
 
         } catch (IOException e) {
@@ -48,4 +45,300 @@ public class GraphReader {
 
         return graph;
     }
-}
\ No newline at end of file
+
+    // Read the file straight into a CSR graph, without creating Edge objects or adjacency lists
+    public CsrGraph executeCsr() {
+        CsrGraph graph = null;
+
+        try {
+            EdgeList edges = read();
+            graph = CsrGraph.fromEdges(edges.V, edges.centers, edges.from, edges.to, edges.weights, edges.count);
+
+        } catch (IOException e) {
+            System.err.println("Error reading file: " + e.getMessage());
+            e.printStackTrace();
+        } catch (NumberFormatException e) {
+            System.err.println("Error converting numbers: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        return graph;
+    }
+
+    // Single pass over the file: the header gives V, E and the centers, then every line with
+    // at least three numbers is an edge "v w weight"
+    private EdgeList read() throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            Scanner scanner = new Scanner(channel);
+
+            if (scanner.tokensOnLine() < 3) {
+                throw new IOException("Missing header with the number of vertex, edges and centers");
+            }
+            EdgeList edges = new EdgeList();
+            edges.V = (int) scanner.nextLong(); // número de vértices
+            int E = (int) scanner.nextLong();
+            edges.centers = (int) scanner.nextLong(); // número de centros
+            scanner.skipLine();
+
+            // The header edge count presizes the arrays, which still grow if the file has more lines
+            int capacity = Math.max(E, 1);
+            edges.from = new int[capacity];
+            edges.to = new int[capacity];
+            edges.weights = new double[capacity];
+
+            while (scanner.hasMore()) {
+                if (scanner.tokensOnLine() >= 3) {
+                    if (edges.count == edges.from.length) {
+                        int grown = edges.count * 2;
+                        edges.from = Arrays.copyOf(edges.from, grown);
+                        edges.to = Arrays.copyOf(edges.to, grown);
+                        edges.weights = Arrays.copyOf(edges.weights, grown);
+                    }
+                    // Test index is 1 to V instead of 0 to V - 1
+                    edges.from[edges.count] = (int) scanner.nextLong() - 1;
+                    edges.to[edges.count] = (int) scanner.nextLong() - 1;
+                    edges.weights[edges.count] = scanner.nextDouble();
+                    edges.count++;
+                }
+                scanner.skipLine();
+            }
+
+            removeRepeatedPairs(edges);
+            return edges;
+        }
+    }
+
+    // A pair of vertex given more than once keeps the weight of its last line, as the OR-Library instances expect
+    // The edges are grouped by their smaller endpoint and each group is walked from the last line to the first
+    private static void removeRepeatedPairs(EdgeList edges) {
+        int V = edges.V;
+        int[] start = new int[V + 1];
+        for (int i = 0; i < edges.count; i++) {
+            int low = Math.min(edges.from[i], edges.to[i]);
+            if (low < 0 || Math.max(edges.from[i], edges.to[i]) >= V)
+                return; // Left to the graph, which rejects vertex out of range
+            start[low + 1]++;
+        }
+        for (int v = 0; v < V; v++) {
+            start[v + 1] += start[v];
+        }
+
+        int[] group = new int[edges.count];
+        int[] next = Arrays.copyOf(start, V);
+        for (int i = 0; i < edges.count; i++) {
+            group[next[Math.min(edges.from[i], edges.to[i])]++] = i;
+        }
+
+        boolean[] repeated = new boolean[edges.count];
+        int[] seenIn = new int[V];
+        Arrays.fill(seenIn, -1);
+        for (int v = 0; v < V; v++) {
+            for (int p = start[v + 1] - 1; p >= start[v]; p--) {
+                int i = group[p];
+                int high = Math.max(edges.from[i], edges.to[i]);
+                repeated[i] = seenIn[high] == v;
+                seenIn[high] = v;
+            }
+        }
+
+        int kept = 0;
+        for (int i = 0; i < edges.count; i++) {
+            if (!repeated[i]) {
+                edges.from[kept] = edges.from[i];
+                edges.to[kept] = edges.to[i];
+                edges.weights[kept] = edges.weights[i];
+                kept++;
+            }
+        }
+        edges.count = kept;
+    }
+
+    private static class EdgeList {
+        int V;
+        int centers;
+        int[] from;
+        int[] to;
+        double[] weights;
+        int count;
+    }
+
+    // Reads numbers from the mapped regions of the file, one byte at a time
+    private static class Scanner {
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer region;
+        private long regionStart;
+
+        Scanner(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            map(0);
+        }
+
+        private void map(long start) throws IOException {
+            regionStart = start;
+            region = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(MAX_REGION, size - start));
+        }
+
+        boolean hasMore() throws IOException {
+            if (region.hasRemaining())
+                return true;
+            long next = regionStart + region.limit();
+            if (next >= size)
+                return false;
+            map(next);
+            return true;
+        }
+
+        // Next byte without consuming it, or -1 at the end of the file
+        private int peek() throws IOException {
+            return hasMore() ? region.get(region.position()) : -1;
+        }
+
+        private void advance() {
+            region.position(region.position() + 1);
+        }
+
+        private void skipSpaces() throws IOException {
+            int c;
+            while ((c = peek()) == ' ' || c == '\t' || c == '\r') {
+                advance();
+            }
+        }
+
+        // Counts the tokens of the current line without consuming them
+        int tokensOnLine() throws IOException {
+            long savedRegionStart = regionStart;
+            int savedPosition = region.position();
+
+            int tokens = 0;
+            boolean inToken = false;
+            int c;
+            while ((c = peek()) != -1 && c != '\n') {
+                boolean space = c == ' ' || c == '\t' || c == '\r';
+                if (!space && !inToken) {
+                    tokens++;
+                }
+                inToken = !space;
+                advance();
+            }
+
+            if (regionStart != savedRegionStart) {
+                map(savedRegionStart);
+            }
+            region.position(savedPosition);
+            return tokens;
+        }
+
+        void skipLine() throws IOException {
+            int c;
+            while ((c = peek()) != -1 && c != '\n') {
+                advance();
+            }
+            if (c == '\n') {
+                advance();
+            }
+        }
+
+        long nextLong() throws IOException {
+            skipSpaces();
+            boolean negative = false;
+            int c = peek();
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                advance();
+                c = peek();
+            }
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Expected an integer but found '" + (char) c + "'");
+            }
+
+            long value = 0;
+            while ((c = peek()) >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                advance();
+            }
+            requireSeparator(c);
+            return negative ? -value : value;
+        }
+
+        double nextDouble() throws IOException {
+            skipSpaces();
+            long savedRegionStart = regionStart;
+            int savedPosition = region.position();
+
+            boolean negative = false;
+            int c = peek();
+            if (c == '-' || c == '+') {
+                negative = c == '-';
+                advance();
+            }
+
+            long mantissa = 0;
+            int exponent = 0;
+            boolean exact = true;
+            boolean anyDigit = false;
+
+            while ((c = peek()) >= '0' && c <= '9') {
+                exact &= fits(mantissa, c);
+                if (exact) {
+                    mantissa = mantissa * 10 + (c - '0');
+                }
+                anyDigit = true;
+                advance();
+            }
+            if (c == '.') {
+                advance();
+                while ((c = peek()) >= '0' && c <= '9') {
+                    exact &= fits(mantissa, c);
+                    if (exact) {
+                        mantissa = mantissa * 10 + (c - '0');
+                        exponent--;
+                    }
+                    anyDigit = true;
+                    advance();
+                }
+            }
+            if (!anyDigit) {
+                throw new NumberFormatException("Expected a number but found '" + (char) c + "'");
+            }
+            if (c == 'e' || c == 'E') {
+                exact = false;
+                advance();
+                while ((c = peek()) == '-' || c == '+' || (c >= '0' && c <= '9')) {
+                    advance();
+                }
+            }
+            requireSeparator(c);
+
+            // mantissa / 10^n is correctly rounded while both values are exact doubles
+            if (exact && mantissa < (1L << 53) && -exponent < POWERS_OF_TEN.length) {
+                double value = mantissa / POWERS_OF_TEN[-exponent];
+                return negative ? -value : value;
+            }
+
+            // Rare numbers with too many digits or an exponent are read again as text
+            if (regionStart != savedRegionStart) {
+                map(savedRegionStart);
+            }
+            region.position(savedPosition);
+            StringBuilder text = new StringBuilder();
+            while ((c = peek()) != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                text.append((char) c);
+                advance();
+            }
+            return Double.parseDouble(text.toString());
+        }
+
+        // Checks if one more digit still fits in the mantissa
+        private static boolean fits(long mantissa, int digit) {
+            return mantissa <= (Long.MAX_VALUE - (digit - '0')) / 10;
+        }
+
+        private static void requireSeparator(int c) {
+            if (c != -1 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                throw new NumberFormatException("Unexpected character '" + (char) c + "'");
+            }
+        }
+    }
+}
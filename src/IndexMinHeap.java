@@ -0,0 +1,94 @@
+// Class used to implement a binary heap of vertex indexed by the vertex itself
+// Keys are primitive doubles, so the shortest path searches do not box any value
+public class IndexMinHeap {
+    private final int[] pq;
+    private final int[] qp;
+    private final double[] keys;
+    private int n;
+
+    public IndexMinHeap(int maxN) {
+        if (maxN < 0)
+            throw new IllegalArgumentException("Heap capacity must be non-negative");
+        pq = new int[maxN + 1];
+        qp = new int[maxN];
+        keys = new double[maxN];
+        for (int i = 0; i < maxN; i++) {
+            qp[i] = -1;
+        }
+    }
+
+    public boolean isEmpty() {
+        return n == 0;
+    }
+
+    public boolean contains(int i) {
+        return qp[i] != -1;
+    }
+
+    public double keyOf(int i) {
+        return keys[i];
+    }
+
+    // Inserts the vertex or decreases its key when it is already on the heap
+    public void insertOrDecrease(int i, double key) {
+        if (qp[i] == -1) {
+            n++;
+            qp[i] = n;
+            pq[n] = i;
+            keys[i] = key;
+            swim(n);
+        } else if (key < keys[i]) {
+            keys[i] = key;
+            swim(qp[i]);
+        }
+    }
+
+    public int delMin() {
+        if (n == 0)
+            throw new IllegalStateException("Heap underflow");
+        int min = pq[1];
+        exch(1, n--);
+        sink(1);
+        qp[min] = -1;
+        return min;
+    }
+
+    // Empties the heap so it can be reused by the next search
+    public void clear() {
+        for (int i = 1; i <= n; i++) {
+            qp[pq[i]] = -1;
+        }
+        n = 0;
+    }
+
+    private boolean greater(int i, int j) {
+        return keys[pq[i]] > keys[pq[j]];
+    }
+
+    private void exch(int i, int j) {
+        int swap = pq[i];
+        pq[i] = pq[j];
+        pq[j] = swap;
+        qp[pq[i]] = i;
+        qp[pq[j]] = j;
+    }
+
+    private void swim(int k) {
+        while (k > 1 && greater(k / 2, k)) {
+            exch(k, k / 2);
+            k = k / 2;
+        }
+    }
+
+    private void sink(int k) {
+        while (2 * k <= n) {
+            int j = 2 * k;
+            if (j < n && greater(j, j + 1))
+                j++;
+            if (!greater(k, j))
+                break;
+            exch(k, j);
+            k = j;
+        }
+    }
+}
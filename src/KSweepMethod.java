@@ -0,0 +1,153 @@
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// Class used to solve the K-Centers problem for every k from 1 to K over the same graph in a single run
+// The farthest-first order is nested, so one traversal of K centers gives the greedy answer of every k as a prefix
+// The local search of each k starts from the centers of k - 1 plus the vertex farthest from them
+// The exact search of each k is bounded above by the answer of k - 1, since one more center never hurts,
+// and below by half the greedy radius, and all of them share the distance matrix and its coverage index
+public class KSweepMethod {
+    private final DistanceOracle oracle;
+    private final RadiusSearchMethod exact;
+    private final long timeLimitMs;
+    // Half the greedy radius of each k in the last approximate sweep, a lower bound of its optimum
+    private double[] greedyBounds;
+    private boolean[] optimal = new boolean[0];
+
+    // Each exact search gets its own time limit, after which its best radius is kept
+    public KSweepMethod(DistanceOracle oracle, long timeLimitMs) {
+        if (timeLimitMs <= 0)
+            throw new IllegalArgumentException("Time limit must be positive");
+        this.oracle = oracle;
+        this.exact = new RadiusSearchMethod(oracle);
+        this.timeLimitMs = timeLimitMs;
+    }
+
+    // Whether the exact radius of k in the last sweep is proven optimal, and not only the best found in time
+    public boolean isOptimal(int k) {
+        return optimal[k - 1];
+    }
+
+    // Approximate answers for k = 1 to maxK, at index k - 1
+    public MethodResult[] approximate(EdgeWeightedGraph graph, int maxK) {
+        int V = graph.V();
+        if (maxK < 1 || maxK > V)
+            throw new IllegalArgumentException("Largest k must be between 1 and the number of vertex");
+        if (!DistanceOracle.fitsInMemory(V))
+            throw new IllegalArgumentException("The distance matrix of the graph does not fit in memory");
+
+        PhaseMetrics shared = new PhaseMetrics();
+        double[][] distances = oracle.distances(graph);
+        oracle.recordDistances(graph, shared);
+
+        // One traversal for every k
+        long phaseStart = PhaseMetrics.start();
+        int firstCenter = AverageMethod.findMostCentralVertex(distances, V);
+        FarthestFirst greedy = new FarthestFirst();
+        int[] order = greedy.select(V, maxK, firstCenter, FarthestFirst.fromMatrix(distances));
+        shared.stop(PhaseMetrics.Phase.GREEDY, phaseStart);
+        shared.count(PhaseMetrics.Phase.GREEDY, V + greedy.getComparisons());
+
+        MethodResult[] results = new MethodResult[maxK];
+        LocalSearch localSearch = new LocalSearch(distances);
+        int[] previous = new int[0];
+
+        for (int k = 1; k <= maxK; k++) {
+            long startTime = System.currentTimeMillis();
+            PhaseMetrics phases = new PhaseMetrics();
+            if (k == 1) {
+                phases.addAll(shared);
+            }
+            long comparisons = 0;
+
+            phaseStart = PhaseMetrics.start();
+            long before = localSearch.getComparisons();
+            int[] centers = grow(distances, previous, order[k - 1]);
+            comparisons += (long) V * previous.length;
+            double radius = localSearch.refine(centers);
+
+            // The warm start can get stuck above the plain greedy answer, which is known for free
+            double greedyRadius = greedy.prefixRadius(k);
+            if (greedyRadius < radius) {
+                centers = Arrays.copyOf(order, k);
+                radius = localSearch.refine(centers);
+            }
+            comparisons += localSearch.getComparisons() - before;
+            phases.stop(PhaseMetrics.Phase.LOCAL_SEARCH, phaseStart);
+            phases.count(PhaseMetrics.Phase.LOCAL_SEARCH, comparisons);
+
+            results[k - 1] = new MethodResult(System.currentTimeMillis() - startTime, comparisons, radius, phases);
+            previous = centers;
+        }
+        greedyBounds = new double[maxK];
+        for (int k = 1; k <= maxK; k++) {
+            greedyBounds[k - 1] = k < V ? greedy.prefixRadius(k) / 2 : 0.0;
+        }
+        return results;
+    }
+
+    // Exact answers for k = 1 to the length of the approximate answers, which must come from the same graph
+    public MethodResult[] exact(EdgeWeightedGraph graph, MethodResult[] approximate) {
+        int maxK = approximate.length;
+        if (greedyBounds == null || greedyBounds.length != maxK)
+            throw new IllegalArgumentException("The approximate answers must come from the last approximate sweep");
+
+        MethodResult[] results = new MethodResult[maxK];
+        optimal = new boolean[maxK];
+        double previousRadius = Double.POSITIVE_INFINITY;
+
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sweep-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            for (int k = 1; k <= maxK; k++) {
+                double upperBound = Math.min(approximate[k - 1].radius, previousRadius);
+                ScheduledFuture<?> timeout = timer.schedule(exact::signalTimeout, timeLimitMs, TimeUnit.MILLISECONDS);
+                results[k - 1] = exact.execute(graph, k, greedyBounds[k - 1], upperBound);
+                timeout.cancel(false);
+
+                optimal[k - 1] = exact.isOptimal();
+                previousRadius = results[k - 1].radius;
+            }
+        } finally {
+            timer.shutdownNow();
+        }
+        return results;
+    }
+
+    // Centers of k - 1 plus the vertex farthest from them, or the first greedy center when there are none
+    private static int[] grow(double[][] distances, int[] previous, int firstCenter) {
+        int[] centers = Arrays.copyOf(previous, previous.length + 1);
+        if (previous.length == 0) {
+            centers[0] = firstCenter;
+            return centers;
+        }
+
+        boolean[] isCenter = new boolean[distances.length];
+        for (int center : previous) {
+            isCenter[center] = true;
+        }
+
+        int farthest = -1;
+        double farthestDistance = -1.0;
+        for (int v = 0; v < distances.length; v++) {
+            if (isCenter[v])
+                continue;
+            double nearest = Double.POSITIVE_INFINITY;
+            for (int center : previous) {
+                nearest = Math.min(nearest, distances[center][v]);
+            }
+            if (nearest > farthestDistance) {
+                farthestDistance = nearest;
+                farthest = v;
+            }
+        }
+        centers[previous.length] = farthest;
+        return centers;
+    }
+}
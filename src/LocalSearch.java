@@ -0,0 +1,112 @@
+// Class used to improve a set of centers by swapping one center at a time (fast interchange)
+// For each vertex it keeps the nearest and the second nearest center, so the radius after
+// replacing one center is evaluated in O(V) instead of recomputing all the V x k distances
+public class LocalSearch {
+    private final double[][] distances;
+    private final int V;
+    private long comparisons;
+
+    // Position in the centers array of the nearest center of each vertex
+    private int[] nearest;
+    private double[] nearestDistance;
+    private double[] secondDistance;
+
+    public LocalSearch(double[][] distances) {
+        this.distances = distances;
+        this.V = distances.length;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    // Swaps centers while the radius improves, running until no single swap improves it anymore
+    // The centers array is updated in place and the final radius is returned
+    public double refine(int[] centers) {
+        int k = centers.length;
+        boolean[] isCenter = new boolean[V];
+        for (int center : centers) {
+            isCenter[center] = true;
+        }
+
+        nearest = new int[V];
+        nearestDistance = new double[V];
+        secondDistance = new double[V];
+        double radius = assign(centers);
+
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+
+            // First improvement, in the same order as the plain local search
+            for (int i = 0; i < k && !improved; i++) {
+                for (int v = 0; v < V; v++) {
+                    if (isCenter[v])
+                        continue;
+
+                    double newRadius = swapRadius(i, v, radius);
+                    if (newRadius < radius) {
+                        isCenter[centers[i]] = false;
+                        isCenter[v] = true;
+                        centers[i] = v;
+                        radius = assign(centers);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+
+        return radius;
+    }
+
+    // Radius after replacing the center at the given position, or infinity once it reaches the bound
+    private double swapRadius(int position, int candidate, double bound) {
+        double[] candidateRow = distances[candidate];
+        double radius = 0.0;
+
+        for (int u = 0; u < V; u++) {
+            double withoutPosition = nearest[u] == position ? secondDistance[u] : nearestDistance[u];
+            double d = Math.min(withoutPosition, candidateRow[u]);
+            if (d >= bound) {
+                comparisons += u + 1;
+                return Double.POSITIVE_INFINITY;
+            }
+            radius = Math.max(radius, d);
+        }
+        comparisons += V;
+
+        return radius;
+    }
+
+    // Recomputes the nearest and second nearest center of every vertex and returns the radius
+    private double assign(int[] centers) {
+        double radius = 0.0;
+
+        for (int u = 0; u < V; u++) {
+            double[] row = distances[u];
+            int best = -1;
+            double first = Double.POSITIVE_INFINITY;
+            double second = Double.POSITIVE_INFINITY;
+
+            for (int i = 0; i < centers.length; i++) {
+                double d = row[centers[i]];
+                if (d < first) {
+                    second = first;
+                    first = d;
+                    best = i;
+                } else if (d < second) {
+                    second = d;
+                }
+            }
+
+            nearest[u] = best;
+            nearestDistance[u] = first;
+            secondDistance[u] = second;
+            radius = Math.max(radius, first);
+        }
+        comparisons += (long) V * centers.length;
+
+        return radius;
+    }
+}
@@ -1,4 +1,7 @@
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
@@ -6,8 +9,11 @@ import java.util.List;
 
 public class Main {
     public static void main(String[] args) {
-        // Graph List that will be used on the ProblemTester method
-        List<EdgeWeightedGraph> graphs = new ArrayList<>();
+        // "stream k" clusters the points read from the standard input, one line of coordinates per point
+        if (args.length > 1 && args[0].equals("stream")) {
+            stream(Integer.parseInt(args[1]));
+            return;
+        }
 
         // Process to obtain ou graphs from the directory /TestCases
         File testCasesDir = new File("TestCases");
@@ -17,7 +23,8 @@ public class Main {
             return;
         }
 
-        File[] testFiles = testCasesDir.listFiles();
+        // Only the instances, the stored distance matrices live in the same directory
+        File[] testFiles = testCasesDir.listFiles((dir, name) -> name.endsWith(".txt"));
 
         if (testFiles == null || testFiles.length == 0) {
             System.out.println("There are no files on /TestCases");
@@ -40,27 +47,82 @@ public class Main {
             }
         });
 
+        // Graphs are loaded by the pipeline while the previous ones are solved, instead of all up front
+        List<File> files = new ArrayList<>();
         for (File testFile : testFiles) {
             if (testFile.isFile()) {
-                System.out.println("Processing file: " + testFile.getName());
+                files.add(testFile);
+            }
+        }
 
-                GraphReader reader = new GraphReader(testFile.getAbsolutePath());
+        // "sweep" as the first argument solves every k from 1 to the second argument, or to the centers of each instance
+        if (args.length > 0 && args[0].equals("sweep")) {
+            int maxK = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+            DistanceOracle oracle = new DistanceOracle();
+            oracle.setStore(new DistanceMatrixStore());
+            new ProblemTester(oracle).runSweep(files, maxK);
+            return;
+        }
+
+        // "outliers z" solves every instance leaving out its z farthest vertex
+        if (args.length > 1 && args[0].equals("outliers")) {
+            DistanceOracle oracle = new DistanceOracle();
+            oracle.setStore(new DistanceMatrixStore());
+            new ProblemTester(oracle).runOutliers(files, Integer.parseInt(args[1]),
+                    Runtime.getRuntime().availableProcessors());
+            return;
+        }
 
-                EdgeWeightedGraph graph = reader.execute();
+        // The first argument picks the exact engine: "enumeration" (default) or "radius"
+        // The second one is the number of instances solved at the same time (default 1)
+        // The third one is the number of approximate restarts, whose best radius bounds the exact search (default 1)
+        boolean radiusSearch = args.length > 0 && args[0].equals("radius");
+        int parallelInstances = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        int restarts = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        int exactParallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / parallelInstances);
 
-                if (graph != null) {
-                    graphs.add(graph);
+        // Execute both methods on all the graphs, sharing the distances of each instance
+        // Matrices are stored next to the instances, so later runs read them instead of recomputing them
+        DistanceOracle oracle = new DistanceOracle(2 * parallelInstances);
+        oracle.setStore(new DistanceMatrixStore());
+        AverageMethod am = new AverageMethod(oracle, restarts, AverageMethod.DEFAULT_SEED);
+        ProblemTester pm = new ProblemTester(oracle);
 
+        pm.runPipeline(files, parallelInstances, () -> radiusSearch
+                ? new RadiusSearchMethod(oracle)
+                : new ExactMethod(oracle, exactParallelism), am);
+    }
+
+    // Only the centers are kept, so the input can be larger than the memory
+    private static void stream(int k) {
+        StreamingKCenter<double[]> streaming = StreamingKCenter.euclidean(k);
+
+        try (BufferedReader input = new BufferedReader(new InputStreamReader(System.in))) {
+            String line;
+            while ((line = input.readLine()) != null) {
+                String[] tokens = line.trim().split("\\s+");
+                if (tokens[0].isEmpty())
+                    continue;
+                double[] point = new double[tokens.length];
+                for (int i = 0; i < tokens.length; i++) {
+                    point[i] = Double.parseDouble(tokens[i]);
                 }
+                streaming.add(point);
             }
-
+        } catch (IOException e) {
+            System.err.println("Error reading points: " + e.getMessage());
+            return;
+        } catch (NumberFormatException e) {
+            System.err.println("Error converting numbers: " + e.getMessage());
+            return;
         }
 
-        // Execute both methods on all the graphs
-        ExactMethod em = new ExactMethod();
-        AverageMethod am = new AverageMethod();
-        ProblemTester pm = new ProblemTester();
-
-        pm.runTests(graphs, em, am);
+        MethodResult result = streaming.result();
+        System.out.println("Points: " + streaming.points());
+        System.out.println("Radius: " + result.radius + " (optimum at least " + streaming.lowerBound() + ")");
+        System.out.println("Time(ms): " + result.executionTimeMs + ", Comparisons: " + result.comparisons);
+        for (double[] center : streaming.centers()) {
+            System.out.println(Arrays.toString(center));
+        }
     }
 }
@@ -0,0 +1,209 @@
+import java.util.Arrays;
+
+// Class used to implement the approximate method on graphs too large for a V x V distance matrix
+// The greedy farthest-first traversal needs only k single-source searches over a CSR copy of the graph,
+// and the refinement swaps centers using a bounded cache of distance rows
+public class MatrixFreeMethod {
+    private static final int DEFAULT_CACHED_ROWS = 64;
+    private static final int DEFAULT_CANDIDATES = 8;
+    // Share of the heap the cached rows may use
+    private static final double ROW_CACHE_HEAP_FRACTION = 0.25;
+
+    private final int cachedRows;
+    private final int candidatesPerRound;
+
+    public MatrixFreeMethod() {
+        this(DEFAULT_CACHED_ROWS, DEFAULT_CANDIDATES);
+    }
+
+    public MatrixFreeMethod(int cachedRows, int candidatesPerRound) {
+        if (cachedRows < 1)
+            throw new IllegalArgumentException("At least one row must be cached");
+        if (candidatesPerRound < 1)
+            throw new IllegalArgumentException("At least one candidate must be tried");
+        this.cachedRows = cachedRows;
+        this.candidatesPerRound = candidatesPerRound;
+    }
+
+    // Finds an aproximate radius without ever building the distance matrix
+    public MethodResult execute(EdgeWeightedGraph graph) {
+        return execute(CsrGraph.from(graph));
+    }
+
+    // Graphs read straight into CSR form never need the adjacency lists of EdgeWeightedGraph
+    public MethodResult execute(CsrGraph csr) {
+        long startTime = System.currentTimeMillis();
+
+        int V = csr.V();
+        int k = Math.min(csr.Centers(), V);
+
+        DistanceRowCache rows = new DistanceRowCache(csr,
+                DistanceRowCache.capacityFor(V, Math.max(cachedRows, k), ROW_CACHE_HEAP_FRACTION));
+
+        PhaseMetrics phases = new PhaseMetrics();
+
+        // Farthest-first from vertex 0, one Dijkstra per chosen center
+        long phaseStart = PhaseMetrics.start();
+        FarthestFirst greedy = new FarthestFirst();
+        int[] centers = greedy.select(V, k, 0, rows);
+        long greedyRowComparisons = rows.getComparisons();
+        long greedyComparisons = greedy.getComparisons() + greedyRowComparisons;
+        phases.stop(PhaseMetrics.Phase.GREEDY, phaseStart);
+        phases.count(PhaseMetrics.Phase.GREEDY, greedyComparisons);
+
+        phaseStart = PhaseMetrics.start();
+        Refinement refinement = new Refinement(V, rows);
+        double radius = refinement.refine(centers);
+        // Rows first computed during the refinement are charged to it
+        long refinementComparisons = refinement.comparisons + rows.getComparisons() - greedyRowComparisons;
+        phases.stop(PhaseMetrics.Phase.LOCAL_SEARCH, phaseStart);
+        phases.count(PhaseMetrics.Phase.LOCAL_SEARCH, refinementComparisons);
+        long comparisons = greedyComparisons + refinementComparisons;
+
+        long executionTimeMs = System.currentTimeMillis() - startTime;
+        return new MethodResult(executionTimeMs, comparisons, radius, phases);
+    }
+
+    // Swap refinement around the vertex that defines the radius
+    // Candidates are the vertex between it and its nearest center, so only a few rows are needed per round
+    private class Refinement {
+        private final int V;
+        private final DistanceRowCache rows;
+        private final int[] nearest;
+        private final double[] nearestDistance;
+        private final double[] secondDistance;
+        private long comparisons;
+
+        Refinement(int V, DistanceRowCache rows) {
+            this.V = V;
+            this.rows = rows;
+            this.nearest = new int[V];
+            this.nearestDistance = new double[V];
+            this.secondDistance = new double[V];
+        }
+
+        double refine(int[] centers) {
+            boolean[] isCenter = new boolean[V];
+            for (int center : centers) {
+                isCenter[center] = true;
+            }
+
+            double radius = assign(centers);
+
+            while (centers.length > 0) {
+                int farthest = 0;
+                for (int v = 1; v < V; v++) {
+                    if (nearestDistance[v] > nearestDistance[farthest]) {
+                        farthest = v;
+                    }
+                }
+                comparisons += V;
+
+                int[] candidates = candidates(farthest, centers[nearest[farthest]], isCenter);
+
+                // Best swap among all positions and candidates of this round
+                int bestPosition = -1;
+                int bestCandidate = -1;
+                double bestRadius = radius;
+                for (int candidate : candidates) {
+                    double[] candidateRow = rows.row(candidate);
+                    for (int position = 0; position < centers.length; position++) {
+                        double newRadius = swapRadius(position, candidateRow, bestRadius);
+                        if (newRadius < bestRadius) {
+                            bestRadius = newRadius;
+                            bestPosition = position;
+                            bestCandidate = candidate;
+                        }
+                    }
+                }
+
+                if (bestPosition == -1) {
+                    break;
+                }
+
+                isCenter[centers[bestPosition]] = false;
+                isCenter[bestCandidate] = true;
+                centers[bestPosition] = bestCandidate;
+                radius = assign(centers);
+            }
+
+            return radius;
+        }
+
+        // Vertex that minimize their largest distance to the farthest vertex and to its nearest center
+        private int[] candidates(int farthest, int center, boolean[] isCenter) {
+            double[] fromFarthest = rows.row(farthest);
+            double[] fromCenter = rows.row(center);
+
+            int[] best = new int[candidatesPerRound];
+            double[] score = new double[candidatesPerRound];
+            int size = 0;
+
+            for (int v = 0; v < V; v++) {
+                if (isCenter[v])
+                    continue;
+                double s = Math.max(fromFarthest[v], fromCenter[v]);
+                if (size < best.length || s < score[size - 1]) {
+                    // Insertion into the small sorted list of the best scores
+                    int i = size < best.length ? size++ : size - 1;
+                    while (i > 0 && score[i - 1] > s) {
+                        score[i] = score[i - 1];
+                        best[i] = best[i - 1];
+                        i--;
+                    }
+                    score[i] = s;
+                    best[i] = v;
+                }
+            }
+            comparisons += V;
+
+            return Arrays.copyOf(best, size);
+        }
+
+        // Radius after replacing the center at the position, or infinity once it reaches the bound
+        private double swapRadius(int position, double[] candidateRow, double bound) {
+            double radius = 0.0;
+            for (int u = 0; u < V; u++) {
+                double withoutPosition = nearest[u] == position ? secondDistance[u] : nearestDistance[u];
+                double d = Math.min(withoutPosition, candidateRow[u]);
+                if (d >= bound) {
+                    comparisons += u + 1;
+                    return Double.POSITIVE_INFINITY;
+                }
+                radius = Math.max(radius, d);
+            }
+            comparisons += V;
+            return radius;
+        }
+
+        // Streams the rows of the centers one at a time to find the nearest and second nearest of each vertex
+        private double assign(int[] centers) {
+            for (int u = 0; u < V; u++) {
+                nearest[u] = 0;
+                nearestDistance[u] = Double.POSITIVE_INFINITY;
+                secondDistance[u] = Double.POSITIVE_INFINITY;
+            }
+
+            for (int i = 0; i < centers.length; i++) {
+                double[] row = rows.row(centers[i]);
+                for (int u = 0; u < V; u++) {
+                    double d = row[u];
+                    if (d < nearestDistance[u]) {
+                        secondDistance[u] = nearestDistance[u];
+                        nearestDistance[u] = d;
+                        nearest[u] = i;
+                    } else if (d < secondDistance[u]) {
+                        secondDistance[u] = d;
+                    }
+                }
+            }
+            comparisons += (long) V * centers.length;
+
+            double radius = 0.0;
+            for (int u = 0; u < V; u++) {
+                radius = Math.max(radius, nearestDistance[u]);
+            }
+            return radius;
+        }
+    }
+}
@@ -2,10 +2,17 @@ public class MethodResult {
     long executionTimeMs;
     long comparisons;
     double radius;
+    // Time and operations of each phase that led to this result
+    PhaseMetrics phases;
 
     public MethodResult(long executionTimeMs, long comparisons, double radius) {
+        this(executionTimeMs, comparisons, radius, new PhaseMetrics());
+    }
+
+    public MethodResult(long executionTimeMs, long comparisons, double radius, PhaseMetrics phases) {
         this.executionTimeMs = executionTimeMs;
         this.comparisons = comparisons;
         this.radius = radius;
+        this.phases = phases;
     }
 }
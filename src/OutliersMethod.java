@@ -0,0 +1,161 @@
+import java.util.Arrays;
+
+// Class used to implement the approximate method for the K-Centers problem with z outliers,
+// where the z vertex farthest from their centers are left out of the radius
+// Method used: greedy disks of Charikar et al., a 3-approximation
+// For a guessed radius r it takes, k times, the vertex whose ball of radius r holds the most uncovered vertex and
+// covers its ball of radius 3r; the guess succeeds when at most z vertex are left uncovered
+// Every guess at or above the optimum succeeds, so the binary search over the distances ends at most at the optimum
+public class OutliersMethod {
+    private final DistanceOracle oracle;
+    private final int outliers;
+    private int[] bestCenters = new int[0];
+
+    public OutliersMethod(DistanceOracle oracle, int outliers) {
+        if (outliers < 0)
+            throw new IllegalArgumentException("Number of outliers must be non-negative");
+        this.oracle = oracle;
+        this.outliers = outliers;
+    }
+
+    public synchronized int[] getBestCenters() {
+        return bestCenters.clone();
+    }
+
+    public MethodResult execute(EdgeWeightedGraph graph) {
+        long startTime = System.currentTimeMillis();
+        int V = graph.V();
+        int k = Math.min(graph.Centers(), V);
+        if (!DistanceOracle.fitsInMemory(V))
+            throw new IllegalArgumentException("The distance matrix of the graph does not fit in memory");
+
+        PhaseMetrics phases = new PhaseMetrics();
+        double[][] distances = oracle.distances(graph);
+        long comparisons = oracle.comparisons(graph);
+        oracle.recordDistances(graph, phases);
+
+        long phaseStart = PhaseMetrics.start();
+        Disks disks = new Disks(distances, k);
+        double[] candidates = disks.small.distinctDistances(Double.POSITIVE_INFINITY);
+
+        // Every guess at or above the optimum succeeds, so a failed guess is below it and the search ends on a
+        // successful guess that is not above the optimum
+        // Success is not monotone below the optimum: a failed guess says nothing about the smaller ones
+        int low = 0;
+        int high = candidates.length - 1;
+        int[] centers = disks.cover(candidates[high]);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int[] found = disks.cover(candidates[mid]);
+            if (disks.uncovered <= outliers) {
+                high = mid;
+                centers = found;
+            } else {
+                low = mid + 1;
+            }
+        }
+        comparisons += disks.comparisons;
+
+        double radius = radiusWithOutliers(distances, centers, outliers);
+        comparisons += (long) V * centers.length;
+        phases.stop(PhaseMetrics.Phase.GREEDY, phaseStart);
+        phases.count(PhaseMetrics.Phase.GREEDY, disks.comparisons + (long) V * centers.length);
+
+        synchronized (this) {
+            bestCenters = centers;
+        }
+        return new MethodResult(System.currentTimeMillis() - startTime, comparisons, radius, phases);
+    }
+
+    // Largest distance from a vertex to its nearest center once the z farthest vertex are left out
+    public static double radiusWithOutliers(double[][] distances, int[] centers, int outliers) {
+        int V = distances.length;
+        if (outliers >= V) {
+            return 0.0;
+        }
+        double[] nearest = new double[V];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        for (int center : centers) {
+            RadiusKernels.DEFAULT.relax(nearest, distances[center]);
+        }
+        Arrays.sort(nearest);
+        return nearest[V - 1 - outliers];
+    }
+
+    // The balls of radius r and 3r of the current guess, and the greedy choice over them
+    private static class Disks {
+        final CoverageIndex small;
+        final CoverageIndex large;
+        final int V;
+        final int k;
+        final int[] count;
+        final long[] left;
+        int uncovered;
+        long comparisons;
+
+        Disks(double[][] distances, int k) {
+            this.V = distances.length;
+            this.k = k;
+            this.small = new CoverageIndex(distances, 0.0);
+            this.large = small.copyWithThreshold(0.0);
+            this.count = new int[V];
+            this.left = new long[small.words()];
+        }
+
+        // Picks the k disks for the guess, leaving the number of vertex still uncovered in the field
+        // A vertex leaves the uncovered set once, and only then lowers the count of the balls holding it,
+        // so the counts are never recomputed from scratch between picks
+        int[] cover(double r) {
+            small.setThreshold(r);
+            large.setThreshold(3 * r);
+            int words = left.length;
+
+            Arrays.fill(left, 0L);
+            for (int v = 0; v < V; v++) {
+                left[v >>> 6] |= 1L << v;
+                count[v] = small.coverSize(v);
+            }
+            uncovered = V;
+            comparisons += V;
+
+            int[] centers = new int[k];
+            for (int i = 0; i < k; i++) {
+                int best = 0;
+                for (int v = 1; v < V; v++) {
+                    if (count[v] > count[best]) {
+                        best = v;
+                    }
+                }
+                comparisons += V;
+                centers[i] = best;
+
+                long[] ball = large.coverOf(best);
+                for (int w = 0; w < words; w++) {
+                    long bits = ball[w] & left[w];
+                    left[w] &= ~bits;
+                    while (bits != 0) {
+                        int u = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        uncovered--;
+                        lowerCounts(u);
+                    }
+                }
+                comparisons += words;
+            }
+            return centers;
+        }
+
+        // Every vertex within r of u had u in its ball of radius r
+        private void lowerCounts(int u) {
+            long[] ball = small.coverOf(u);
+            for (int w = 0; w < ball.length; w++) {
+                long bits = ball[w];
+                while (bits != 0) {
+                    count[(w << 6) + Long.numberOfTrailingZeros(bits)]--;
+                    bits &= bits - 1;
+                }
+            }
+            comparisons += small.coverSize(u);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+import java.util.concurrent.atomic.LongAdder;
+
+// Class used to record the wall time and the operation count of each phase of a run
+// The counters are striped, so the workers of a parallel search add to them without contention
+// Running with -Dkcenters.metrics=false turns the timing calls into no-ops that the JIT removes
+public class PhaseMetrics {
+    public enum Phase {
+        LOAD, APSP, GREEDY, LOCAL_SEARCH, EXACT_SEARCH
+    }
+
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("kcenters.metrics", "true"));
+
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LongAdder[] nanos = new LongAdder[PHASES.length];
+    private final LongAdder[] operations = new LongAdder[PHASES.length];
+
+    public PhaseMetrics() {
+        for (int i = 0; i < PHASES.length; i++) {
+            nanos[i] = new LongAdder();
+            operations[i] = new LongAdder();
+        }
+    }
+
+    public static boolean enabled() {
+        return ENABLED;
+    }
+
+    // Start time of a phase, to be given back to stop
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0L;
+    }
+
+    public void stop(Phase phase, long start) {
+        if (ENABLED) {
+            nanos[phase.ordinal()].add(System.nanoTime() - start);
+        }
+    }
+
+    public void count(Phase phase, long count) {
+        if (ENABLED) {
+            operations[phase.ordinal()].add(count);
+        }
+    }
+
+    public void record(Phase phase, long elapsedNanos, long count) {
+        if (ENABLED) {
+            nanos[phase.ordinal()].add(elapsedNanos);
+            operations[phase.ordinal()].add(count);
+        }
+    }
+
+    public void addAll(PhaseMetrics other) {
+        for (Phase phase : PHASES) {
+            record(phase, other.nanos(phase), other.operations(phase));
+        }
+    }
+
+    public long nanos(Phase phase) {
+        return nanos[phase.ordinal()].sum();
+    }
+
+    public long operations(Phase phase) {
+        return operations[phase.ordinal()].sum();
+    }
+
+    public double millis(Phase phase) {
+        return nanos(phase) / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder s = new StringBuilder();
+        for (Phase phase : PHASES) {
+            if (nanos(phase) == 0 && operations(phase) == 0)
+                continue;
+            if (s.length() > 0)
+                s.append(", ");
+            s.append(String.format("%s %.1f ms (%d ops)", phase, millis(phase), operations(phase)));
+        }
+        return s.toString();
+    }
+}
@@ -1,22 +1,35 @@
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 
 // Class created to apply the methods on all graph instances
 public class ProblemTester {
     private static final long TIME_LIMIT_MINUTES = 30;
+    private static final int LOADER_THREADS = 2;
+    // Shortest time between two progress lines of the exact search
+    private static final long PROGRESS_PRINT_INTERVAL_MS = 60000;
 
-    public ProblemTester() {
+    private final DistanceOracle oracle;
+
+    public ProblemTester(DistanceOracle oracle) {
+        this.oracle = oracle;
     }
 
     // Execute the tests
-    public void runTests(List<EdgeWeightedGraph> graphs, ExactMethod em, AverageMethod am) {
+    public void runTests(List<EdgeWeightedGraph> graphs, ExactSolver em, AverageMethod am) {
         try {
             // Print the results in two different archives
             PrintWriter resultsMethod1 = new PrintWriter(new FileWriter("results_method1.txt"));
@@ -25,47 +38,287 @@ public class ProblemTester {
             resultsMethod1.println("Instance,Time(ms),Comparisons,Radius,SolutionType");
             resultsMethod2.println("Instance,Time(ms),Comparisons,Radius,SolutionType");
 
+            PrintWriter resultsPhases = new PrintWriter(new FileWriter("results_phases.txt"));
+            resultsPhases.println("Instance,Method,Phase,Time(ms),Operations");
+
             resultsMethod1.flush();
             resultsMethod2.flush();
+            resultsPhases.flush();
 
             int i = 1;
 
             for (var graph : graphs) {
                 System.out.println("Processing graph " + i + "...");
 
-                // Execute the average method
-                MethodResult resultM2 = am.execute(graph);
-                resultsMethod2.println(String.format("%d,%d,%d,%.1f",
-                        i, resultM2.executionTimeMs,
-                        resultM2.comparisons, resultM2.radius));
-                resultsMethod2.flush();
+                MethodResult[] results = solve(graph, em, am, null);
+                write(i, new PhaseMetrics(), results, resultsMethod1, resultsMethod2, resultsPhases);
 
-                em.resetTimeout();
+                i++;
+            }
 
-                // Execute the exact method with a time limit
-                MethodResult resultM1 = executeWithTimeLimit(em, graph, resultM2.radius);
-                resultsMethod1.println(String.format("%d,%d,%d,%.1f",
-                        i, resultM1.executionTimeMs,
-                        resultM1.comparisons, resultM1.radius));
+            // Close Files
+            resultsMethod1.close();
+            resultsMethod2.close();
+            resultsPhases.close();
 
-                resultsMethod1.flush();
+            System.out.println("\nTests done.");
 
-                i++;
+        } catch (IOException e) {
+            System.err.println("There was an error processing tests: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Execute the tests as a pipeline: the files are parsed concurrently, up to parallelInstances graphs
+    // are solved at the same time and the results are written in the order of the files
+    // Each graph is dropped as soon as it is solved, and at most twice parallelInstances graphs are in memory
+    public void runPipeline(List<File> files, int parallelInstances, Supplier<ExactSolver> exactSolvers,
+            AverageMethod am) {
+        if (parallelInstances < 1)
+            throw new IllegalArgumentException("At least one instance must be solved at a time");
+
+        ExecutorService loaders = Executors.newFixedThreadPool(Math.max(1, Math.min(LOADER_THREADS, files.size())));
+        ExecutorService solvers = Executors.newFixedThreadPool(parallelInstances);
+        Semaphore graphsInMemory = new Semaphore(2 * parallelInstances, true);
+
+        List<CompletableFuture<MethodResult[]>> pending = new ArrayList<>();
+        List<PhaseMetrics> loading = new ArrayList<>();
+        for (File file : files) {
+            PhaseMetrics fileLoading = new PhaseMetrics();
+            loading.add(fileLoading);
+            CompletableFuture<MethodResult[]> result = CompletableFuture
+                    .supplyAsync(() -> load(file, graphsInMemory, fileLoading), loaders)
+                    .thenApplyAsync(graph -> {
+                        if (graph == null) {
+                            return null;
+                        }
+                        try {
+                            return solve(graph, exactSolvers.get(), am, checkpointFile(file));
+                        } finally {
+                            graphsInMemory.release();
+                        }
+                    }, solvers);
+            pending.add(result);
+        }
+
+        try {
+            // Print the results in two different archives
+            PrintWriter resultsMethod1 = new PrintWriter(new FileWriter("results_method1.txt"));
+            PrintWriter resultsMethod2 = new PrintWriter(new FileWriter("results_method2.txt"));
+
+            resultsMethod1.println("Instance,Time(ms),Comparisons,Radius,SolutionType");
+            resultsMethod2.println("Instance,Time(ms),Comparisons,Radius,SolutionType");
+
+            PrintWriter resultsPhases = new PrintWriter(new FileWriter("results_phases.txt"));
+            resultsPhases.println("Instance,Method,Phase,Time(ms),Operations");
+
+            resultsMethod1.flush();
+            resultsMethod2.flush();
+            resultsPhases.flush();
+
+            // The writer waits for the instances in order, even if later ones finish first
+            for (int i = 0; i < pending.size(); i++) {
+                try {
+                    MethodResult[] results = pending.get(i).join();
+                    if (results != null) {
+                        write(i + 1, loading.get(i), results, resultsMethod1, resultsMethod2, resultsPhases);
+                    }
+                } catch (CompletionException e) {
+                    System.err.println("Error solving " + files.get(i).getName() + ": " + e.getCause());
+                }
+                pending.set(i, null);
+                loading.set(i, null);
             }
 
             // Close Files
             resultsMethod1.close();
             resultsMethod2.close();
+            resultsPhases.close();
 
             System.out.println("\nTests done.");
 
+        } catch (IOException e) {
+            System.err.println("There was an error processing tests: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            loaders.shutdownNow();
+            solvers.shutdownNow();
+        }
+    }
+
+    // Solves every k from 1 to maxK on each instance, or up to its own number of centers when maxK is not positive
+    // One line per instance and k, the exact radius is only an upper bound when Optimal is false
+    public void runSweep(List<File> files, int maxK) {
+        KSweepMethod sweep = new KSweepMethod(oracle, TimeUnit.MINUTES.toMillis(TIME_LIMIT_MINUTES));
+
+        try (PrintWriter resultsSweep = new PrintWriter(new FileWriter("results_sweep.txt"))) {
+            resultsSweep.println("Instance,k,ApproximateTime(ms),ApproximateRadius,ExactTime(ms),ExactRadius,Optimal");
+            resultsSweep.flush();
+
+            int instance = 1;
+            for (File file : files) {
+                System.out.println("Sweeping graph " + instance + "...");
+                EdgeWeightedGraph graph = new GraphReader(file.getPath()).execute();
+                if (graph == null) {
+                    instance++;
+                    continue;
+                }
+                oracle.attachSource(graph, file.toPath());
+                int K = Math.min(maxK > 0 ? maxK : graph.Centers(), graph.V());
+
+                try {
+                    MethodResult[] approximate = sweep.approximate(graph, K);
+                    MethodResult[] exact = sweep.exact(graph, approximate);
+                    for (int k = 1; k <= K; k++) {
+                        resultsSweep.println(String.format("%d,%d,%d,%.1f,%d,%.1f,%b",
+                                instance, k, approximate[k - 1].executionTimeMs, approximate[k - 1].radius,
+                                exact[k - 1].executionTimeMs, exact[k - 1].radius, sweep.isOptimal(k)));
+                    }
+                    resultsSweep.flush();
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error sweeping " + file.getName() + ": " + e.getMessage());
+                } finally {
+                    oracle.release(graph);
+                }
+                instance++;
+            }
+
+            System.out.println("\nSweep done.");
+
         } catch (IOException e) {
             System.err.println("There was an error processing tests: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
-    private MethodResult executeWithTimeLimit(ExactMethod em, EdgeWeightedGraph graph, double superiorLimit) {
+    // Solves each instance leaving out its z farthest vertex, with the greedy disks and then the exact search
+    public void runOutliers(List<File> files, int outliers, int exactParallelism) {
+        try (PrintWriter resultsOutliers = new PrintWriter(new FileWriter("results_outliers.txt"))) {
+            resultsOutliers.println("Instance,Outliers,ApproximateTime(ms),ApproximateRadius,ExactTime(ms),ExactRadius");
+            resultsOutliers.flush();
+
+            int instance = 1;
+            for (File file : files) {
+                System.out.println("Processing graph " + instance + " with " + outliers + " outliers...");
+                EdgeWeightedGraph graph = new GraphReader(file.getPath()).execute();
+                if (graph == null) {
+                    instance++;
+                    continue;
+                }
+                oracle.attachSource(graph, file.toPath());
+
+                try {
+                    MethodResult approximate = new OutliersMethod(oracle, outliers).execute(graph);
+                    ExactMethod em = new ExactMethod(oracle, exactParallelism);
+                    em.setOutliers(outliers);
+                    em.setListener(new ProgressPrinter());
+                    MethodResult exact = executeWithTimeLimit(em, graph, approximate.radius);
+
+                    resultsOutliers.println(String.format("%d,%d,%d,%.1f,%d,%.1f", instance, outliers,
+                            approximate.executionTimeMs, approximate.radius, exact.executionTimeMs, exact.radius));
+                    resultsOutliers.flush();
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Error solving " + file.getName() + ": " + e.getMessage());
+                } finally {
+                    oracle.release(graph);
+                }
+                instance++;
+            }
+
+            System.out.println("\nTests done.");
+
+        } catch (IOException e) {
+            System.err.println("There was an error processing tests: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Waits for room in memory before reading the file, the permit is returned once the graph is solved
+    // A file that gives no graph, or makes the reader throw, returns the permit right away
+    private EdgeWeightedGraph load(File file, Semaphore graphsInMemory, PhaseMetrics loading) {
+        graphsInMemory.acquireUninterruptibly();
+        boolean loaded = false;
+        try {
+            System.out.println("Processing file: " + file.getName());
+
+            long start = PhaseMetrics.start();
+            EdgeWeightedGraph graph = new GraphReader(file.getAbsolutePath()).execute();
+            loading.stop(PhaseMetrics.Phase.LOAD, start);
+            if (graph != null) {
+                oracle.attachSource(graph, file.toPath());
+                loaded = true;
+            }
+            return graph;
+        } finally {
+            if (!loaded) {
+                graphsInMemory.release();
+            }
+        }
+    }
+
+    // An interrupted exact search is saved next to its instance and resumed by the next run
+    private static Path checkpointFile(File file) {
+        return file.toPath().resolveSibling(file.getName() + ".checkpoint");
+    }
+
+    // Runs both methods on the graph, returning the exact and then the average result
+    private MethodResult[] solve(EdgeWeightedGraph graph, ExactSolver em, AverageMethod am, Path checkpoint) {
+        // Execute the average method
+        MethodResult resultM2 = am.execute(graph);
+
+        em.resetTimeout();
+        em.setListener(new ProgressPrinter());
+        if (em instanceof ExactMethod) {
+            ((ExactMethod) em).setCheckpoint(checkpoint);
+        }
+
+        // Execute the exact method with a time limit, when the distance matrix fits in memory
+        MethodResult resultM1;
+        if (DistanceOracle.fitsInMemory(graph.V())) {
+            resultM1 = executeWithTimeLimit(em, graph, resultM2.radius);
+        } else {
+            System.out.println("Graph too large for the exact method. Using the approximate solution.");
+            resultM1 = new MethodResult(0, 0, resultM2.radius);
+        }
+
+        // Both methods are done with this instance, so its distances can be dropped
+        oracle.release(graph);
+
+        return new MethodResult[] { resultM1, resultM2 };
+    }
+
+    private void write(int instance, PhaseMetrics loading, MethodResult[] results, PrintWriter resultsMethod1,
+            PrintWriter resultsMethod2, PrintWriter resultsPhases) {
+        MethodResult resultM1 = results[0];
+        MethodResult resultM2 = results[1];
+
+        resultsMethod2.println(String.format("%d,%d,%d,%.1f",
+                instance, resultM2.executionTimeMs,
+                resultM2.comparisons, resultM2.radius));
+        resultsMethod2.flush();
+
+        resultsMethod1.println(String.format("%d,%d,%d,%.1f",
+                instance, resultM1.executionTimeMs,
+                resultM1.comparisons, resultM1.radius));
+        resultsMethod1.flush();
+
+        writePhases(instance, "load", loading, resultsPhases);
+        writePhases(instance, "approximate", resultM2.phases, resultsPhases);
+        writePhases(instance, "exact", resultM1.phases, resultsPhases);
+        resultsPhases.flush();
+    }
+
+    // One line per phase the method went through
+    private void writePhases(int instance, String method, PhaseMetrics phases, PrintWriter resultsPhases) {
+        for (PhaseMetrics.Phase phase : PhaseMetrics.Phase.values()) {
+            if (phases.nanos(phase) == 0 && phases.operations(phase) == 0)
+                continue;
+            resultsPhases.println(String.format("%d,%s,%s,%.3f,%d",
+                    instance, method, phase, phases.millis(phase), phases.operations(phase)));
+        }
+    }
+
+    private MethodResult executeWithTimeLimit(ExactSolver em, EdgeWeightedGraph graph, double superiorLimit) {
         ExecutorService executor = Executors.newSingleThreadExecutor();
         Future<MethodResult> future = executor.submit(() -> em.execute(graph, superiorLimit));
 
@@ -93,7 +346,10 @@ public class ProblemTester {
             }
 
             long executionTime = TIME_LIMIT_MINUTES * 60 * 1000;
-            return new MethodResult(executionTime, em.getComparisons(), em.getBestRadius());
+            PhaseMetrics phases = new PhaseMetrics();
+            phases.record(PhaseMetrics.Phase.EXACT_SEARCH, TimeUnit.MINUTES.toNanos(TIME_LIMIT_MINUTES),
+                    em.getComparisons());
+            return new MethodResult(executionTime, em.getComparisons(), em.getBestRadius(), phases);
 
         } catch (Exception e) {
             System.err.println("Error executing exact method: " + e.getMessage());
@@ -103,4 +359,23 @@ public class ProblemTester {
             return new MethodResult(0, 0, superiorLimit);
         }
     }
-}
\ No newline at end of file
+
+    // Prints the progress of the exact search from time to time, the improvements are already printed by the solvers
+    private static class ProgressPrinter implements ExactSearchListener {
+        private long lastPrintMs = System.currentTimeMillis();
+
+        @Override
+        public void onIncumbent(double radius, int[] centers, long elapsedMs) {
+        }
+
+        @Override
+        public synchronized void onProgress(double fractionExplored, double lowerBound, double incumbent) {
+            long now = System.currentTimeMillis();
+            if (now - lastPrintMs < PROGRESS_PRINT_INTERVAL_MS)
+                return;
+            lastPrintMs = now;
+            System.out.println(String.format("Explored %.2f%% of the search, lower bound %.1f, best %.1f",
+                    100 * fractionExplored, lowerBound, incumbent));
+        }
+    }
+}
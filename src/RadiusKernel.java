@@ -0,0 +1,10 @@
+// Class used to evaluate the min over centers, max over vertex reduction shared by the solvers
+// The distance matrix is symmetric, so the row of a center holds its distance to every vertex
+// in contiguous memory, which is the column of that center as well
+public interface RadiusKernel {
+    // Largest distance from a vertex to its nearest center, or infinity once a vertex is farther than the bound
+    double radius(double[][] distances, int[] centers, double bound);
+
+    // Lowers the distance from every vertex to its nearest center with the row of a new center
+    void relax(double[] nearest, double[] row);
+}
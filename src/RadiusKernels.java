@@ -0,0 +1,28 @@
+// Class used to pick the radius kernel once for the whole program
+// The SIMD kernel lives in vector/ and needs the incubating jdk.incubator.vector module, both to be compiled
+// and at run time, so it is loaded by name and the scalar kernel is used whenever it is missing
+// -Dkcenters.vector=false forces the scalar kernel
+public final class RadiusKernels {
+    private static final String VECTOR_KERNEL = "VectorRadiusKernel";
+
+    public static final RadiusKernel DEFAULT = load();
+
+    private RadiusKernels() {
+    }
+
+    private static RadiusKernel load() {
+        if (!Boolean.parseBoolean(System.getProperty("kcenters.vector", "true"))) {
+            return new ScalarRadiusKernel();
+        }
+        try {
+            return (RadiusKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // Not compiled, or the module was not added with --add-modules jdk.incubator.vector
+            return new ScalarRadiusKernel();
+        }
+    }
+
+    public static boolean isVectorized() {
+        return !(DEFAULT instanceof ScalarRadiusKernel);
+    }
+}
@@ -0,0 +1,313 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Class used to implement an exact method that searches the optimal radius directly
+// The optimal radius is always one of the distances of the matrix, so the method sorts them and
+// binary searches the smallest one where k balls of that radius cover all the vertex
+public class RadiusSearchMethod implements ExactSolver {
+    private static final int TIMEOUT_CHECK_INTERVAL = 100;
+
+    private final DistanceOracle oracle;
+    private double[][] distances;
+    private CoverageIndex coverage;
+    private volatile double minRadius;
+    private int[] bestCenters;
+    private volatile long comparisons;
+    private AtomicBoolean timeoutOccurred;
+    private int timeoutCheckCounter;
+    // Centers left after the dominance reduction of the radius being tried, as a list and as a bitset
+    private int[] allVertex;
+    private int[] centerCandidates;
+    private long[] candidateMask;
+    private int eliminatedCandidates;
+    private volatile boolean optimal;
+    private volatile ExactSearchListener listener;
+    private long startTime;
+
+    public RadiusSearchMethod() {
+        this(new DistanceOracle());
+    }
+
+    public RadiusSearchMethod(DistanceOracle oracle) {
+        this.oracle = oracle;
+        timeoutOccurred = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void signalTimeout() {
+        timeoutOccurred.set(true);
+    }
+
+    @Override
+    public void resetTimeout() {
+        timeoutOccurred.set(false);
+    }
+
+    @Override
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    @Override
+    public double getBestRadius() {
+        return minRadius;
+    }
+
+    // Candidate centers the dominance reduction removed at the last radius tried
+    public int getEliminatedCandidates() {
+        return eliminatedCandidates;
+    }
+
+    // Whether the last search finished, so its radius is the optimum and not only the best found before the timeout
+    public boolean isOptimal() {
+        return optimal;
+    }
+
+    public synchronized int[] getBestCenters() {
+        return bestCenters == null ? new int[0] : bestCenters.clone();
+    }
+
+    @Override
+    public void setListener(ExactSearchListener listener) {
+        this.listener = listener;
+    }
+
+    // Finds the exact solution to the K-Center problem with a binary search over the candidate radius
+    @Override
+    public MethodResult execute(EdgeWeightedGraph graph, double superiorLimit) {
+        return execute(graph, graph.Centers(), 0.0, superiorLimit);
+    }
+
+    // Same search for any number of centers, starting above the larger of the given lower bound and the greedy one
+    // Consecutive calls over the same distance matrix keep the coverage index, so only the threshold moves
+    public MethodResult execute(EdgeWeightedGraph graph, int k, double lowerBound, double superiorLimit) {
+        resetTimeout();
+        timeoutCheckCounter = 0;
+
+        startTime = System.currentTimeMillis();
+
+        // The approximate result is a feasible radius, so it is the first superior limit
+        minRadius = superiorLimit;
+
+        int V = graph.V();
+        optimal = false;
+
+        PhaseMetrics phases = new PhaseMetrics();
+        double[][] previousDistances = distances;
+        distances = oracle.distances(graph);
+        long distanceComparisons = oracle.comparisons(graph);
+        comparisons = distanceComparisons;
+        oracle.recordDistances(graph, phases);
+
+        long searchStart = PhaseMetrics.start();
+
+        synchronized (this) {
+            bestCenters = new int[0];
+        }
+
+        if (coverage == null || distances != previousDistances) {
+            coverage = new CoverageIndex(distances, 0.0);
+        }
+        double[] candidates = coverage.distinctDistances(superiorLimit);
+        allVertex = new int[V];
+        for (int v = 0; v < V; v++) {
+            allVertex[v] = v;
+        }
+
+        try {
+            // Invariant: every radius below candidates[low] is infeasible and candidates[high] is the best feasible one
+            // Radius below half the farthest-first radius are infeasible, so the search starts above them
+            int low = firstAtLeast(candidates, Math.max(lowerBound, greedyLowerBound(V, k)));
+            int high = candidates.length - 1;
+
+            if (high < 0 || !isFeasible(candidates[high], k, V)) {
+                high = candidates.length;
+            } else {
+                high = firstAtLeast(candidates, minRadius);
+            }
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isFeasible(candidates[mid], k, V)) {
+                    // The centers found may already be better than the radius tried
+                    high = firstAtLeast(candidates, minRadius);
+                } else {
+                    low = mid + 1;
+                }
+                publishProgress(candidates, low, high);
+            }
+            optimal = true;
+        } catch (InterruptedException e) {
+            System.out.println("Search interrupted after timeout. Using best solution found so far.");
+        }
+        phases.stop(PhaseMetrics.Phase.EXACT_SEARCH, searchStart);
+        phases.count(PhaseMetrics.Phase.EXACT_SEARCH, comparisons - distanceComparisons);
+
+        long executionTimeMs = System.currentTimeMillis() - startTime;
+
+        System.out.println("Dominance removed " + eliminatedCandidates + " of " + V + " candidate centers at the last radius tried.");
+        if (minRadius == superiorLimit) {
+            System.out.println("No better solution than the upper bound was found.");
+        } else {
+            System.out.println("Best solution found: " + minRadius);
+        }
+
+        return new MethodResult(executionTimeMs, comparisons, minRadius, phases);
+    }
+
+    // Each probe is a cover question for one radius, so a candidate whose ball is inside another one is not needed
+    private void reduceCandidates(double radius) {
+        DominanceReducer reducer = new DominanceReducer(distances);
+        centerCandidates = reducer.reduce(allVertex, coverage, radius);
+        comparisons += reducer.getComparisons();
+        eliminatedCandidates = reducer.eliminated();
+
+        candidateMask = new long[coverage.words()];
+        for (int c : centerCandidates) {
+            candidateMask[c >>> 6] |= 1L << c;
+        }
+    }
+
+    private double greedyLowerBound(int V, int k) {
+        if (V == 0) {
+            return 0.0;
+        }
+        FarthestFirst greedy = new FarthestFirst();
+        greedy.select(V, k, 0, FarthestFirst.fromMatrix(distances));
+        comparisons += greedy.getComparisons();
+        return greedy.lowerBound();
+    }
+
+    private static int firstAtLeast(double[] values, double bound) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < bound) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // The candidates left are the ones between low and high, and every radius below candidates[low] is infeasible
+    private void publishProgress(double[] candidates, int low, int high) {
+        ExactSearchListener listener = this.listener;
+        if (listener == null) {
+            return;
+        }
+        double fractionExplored = 1.0 - (double) (high - low) / candidates.length;
+        double lowerBound = low < candidates.length ? candidates[low] : minRadius;
+        listener.onProgress(fractionExplored, lowerBound, minRadius);
+    }
+
+    // Checks if k balls of the given radius can cover all the vertex
+    private boolean isFeasible(double radius, int k, int V) throws InterruptedException {
+        // Only the pairs between the previous and the new radius are touched
+        coverage.setThreshold(radius);
+        reduceCandidates(radius);
+        int words = coverage.words();
+
+        long[][] uncovered = new long[k + 1][words];
+        for (int v = 0; v < V; v++) {
+            uncovered[0][v >>> 6] |= 1L << v;
+        }
+
+        int maxCoverSize = 0;
+        for (int c : centerCandidates) {
+            maxCoverSize = Math.max(maxCoverSize, coverage.coverSize(c));
+        }
+        comparisons += V;
+
+        int[] centers = new int[k];
+        if (cover(0, k, maxCoverSize, uncovered, centers)) {
+            double found = radiusOf(centers, V);
+            synchronized (this) {
+                minRadius = found;
+                bestCenters = centers;
+            }
+            System.out.println("New best solution: " + found);
+
+            ExactSearchListener listener = this.listener;
+            if (listener != null) {
+                listener.onIncumbent(found, centers.clone(), System.currentTimeMillis() - startTime);
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Actual radius of the centers, which is at most the threshold they were found with
+    private double radiusOf(int[] centers, int V) {
+        comparisons += (long) V * centers.length;
+        return RadiusKernels.DEFAULT.radius(distances, centers, Double.POSITIVE_INFINITY);
+    }
+
+    // Pruned search: some center must cover the uncovered vertex with the fewest options, so only those are tried
+    private boolean cover(int depth, int k, int maxCoverSize, long[][] uncovered, int[] centers)
+            throws InterruptedException {
+        if (++timeoutCheckCounter % TIMEOUT_CHECK_INTERVAL == 0 && timeoutOccurred.get()) {
+            throw new InterruptedException("Time limit exceeded");
+        }
+
+        long[] remaining = uncovered[depth];
+        int words = remaining.length;
+
+        int remainingCount = 0;
+        for (int w = 0; w < words; w++) {
+            remainingCount += Long.bitCount(remaining[w]);
+        }
+        comparisons += words;
+
+        if (remainingCount == 0) {
+            // Unused positions can hold any vertex
+            for (int i = depth; i < k; i++) {
+                centers[i] = centers[0];
+            }
+            return true;
+        }
+
+        // Not even the largest balls can cover what is left
+        if (depth == k || remainingCount > (k - depth) * maxCoverSize) {
+            return false;
+        }
+
+        int pivot = -1;
+        for (int w = 0; w < words; w++) {
+            long bits = remaining[w];
+            while (bits != 0) {
+                int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (pivot == -1 || coverage.coverSize(v) < coverage.coverSize(pivot)) {
+                    pivot = v;
+                }
+            }
+        }
+        comparisons += remainingCount;
+
+        long[] options = coverage.coverOf(pivot);
+        long[] allowed = candidateMask;
+        long[] next = uncovered[depth + 1];
+
+        for (int w = 0; w < words; w++) {
+            long bits = options[w] & allowed[w];
+            while (bits != 0) {
+                int c = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+
+                long[] ball = coverage.coverOf(c);
+                for (int i = 0; i < words; i++) {
+                    next[i] = remaining[i] & ~ball[i];
+                }
+                comparisons += words;
+
+                centers[depth] = c;
+                if (cover(depth + 1, k, maxCoverSize, uncovered, centers)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
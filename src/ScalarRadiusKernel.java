@@ -0,0 +1,30 @@
+// Class used to evaluate the radius reductions one distance at a time
+public class ScalarRadiusKernel implements RadiusKernel {
+    @Override
+    public double radius(double[][] distances, int[] centers, double bound) {
+        int V = distances.length;
+        double radius = 0.0;
+
+        for (int v = 0; v < V; v++) {
+            double minDistanceToCenter = Double.POSITIVE_INFINITY;
+            for (int center : centers) {
+                minDistanceToCenter = Math.min(minDistanceToCenter, distances[center][v]);
+            }
+
+            if (minDistanceToCenter > bound) {
+                return Double.POSITIVE_INFINITY;
+            }
+            radius = Math.max(radius, minDistanceToCenter);
+        }
+        return radius;
+    }
+
+    @Override
+    public void relax(double[] nearest, double[] row) {
+        for (int v = 0; v < nearest.length; v++) {
+            if (row[v] < nearest[v]) {
+                nearest[v] = row[v];
+            }
+        }
+    }
+}
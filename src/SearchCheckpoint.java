@@ -0,0 +1,128 @@
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// Class used to save the state of an interrupted exact search, so a later run can resume it
+// It keeps the incumbent and which subtrees of the first center were fully enumerated, together with the size and
+// a fingerprint of the distance matrix and of the candidate order, so it is never applied to a different search
+public class SearchCheckpoint {
+    private static final String HEADER = "k-centers-checkpoint 2";
+
+    int V;
+    int k;
+    long fingerprint;
+    double radius;
+    int[] centers;
+    boolean[] completed;
+
+    public SearchCheckpoint(int V, int k, long fingerprint, double radius, int[] centers, boolean[] completed) {
+        this.V = V;
+        this.k = k;
+        this.fingerprint = fingerprint;
+        this.radius = radius;
+        this.centers = centers;
+        this.completed = completed;
+    }
+
+    // Fingerprint of the matrix, the search order and the subtrees depend on every distance
+    public static long fingerprint(double[][] distances) {
+        long hash = 1125899906842597L;
+        for (double[] row : distances) {
+            for (double d : row) {
+                hash = 31 * hash + Double.doubleToLongBits(d);
+            }
+        }
+        return hash;
+    }
+
+    // Returns the checkpoint in the file, or null when it is missing or unreadable
+    public static SearchCheckpoint load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file.toFile(), StandardCharsets.UTF_8))) {
+            if (!HEADER.equals(reader.readLine())) {
+                return null;
+            }
+            int V = Integer.parseInt(value(reader, "vertices"));
+            int k = Integer.parseInt(value(reader, "centers"));
+            long fingerprint = Long.parseLong(value(reader, "matrix"));
+            double radius = Double.parseDouble(value(reader, "radius"));
+            int[] centers = indices(value(reader, "best"));
+            boolean[] completed = new boolean[Integer.parseInt(value(reader, "units"))];
+            for (int unit : indices(value(reader, "completed"))) {
+                completed[unit] = true;
+            }
+            return new SearchCheckpoint(V, k, fingerprint, radius, centers, completed);
+
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable checkpoint " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Writes a temporary file first, so an interruption never leaves a partial checkpoint behind
+    public void save(Path file) {
+        try {
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            // Plain file streams, unlike channels, survive the interrupt sent to a cancelled search
+            try (PrintWriter writer = new PrintWriter(new FileWriter(temporary.toFile(), StandardCharsets.UTF_8))) {
+                writer.println(HEADER);
+                writer.println("vertices " + V);
+                writer.println("centers " + k);
+                writer.println("matrix " + fingerprint);
+                writer.println("radius " + radius);
+
+                StringBuilder best = new StringBuilder();
+                for (int center : centers) {
+                    best.append(center).append(' ');
+                }
+                writer.println("best " + best.toString().trim());
+                writer.println("units " + completed.length);
+
+                StringBuilder done = new StringBuilder();
+                for (int unit = 0; unit < completed.length; unit++) {
+                    if (completed[unit]) {
+                        done.append(unit).append(' ');
+                    }
+                }
+                writer.println("completed " + done.toString().trim());
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint: " + e.getMessage());
+        }
+    }
+
+    public boolean matches(int V, int k, long fingerprint, int units) {
+        return this.V == V && this.k == k && this.fingerprint == fingerprint && completed.length == units;
+    }
+
+    private static String value(BufferedReader reader, String key) throws IOException {
+        String line = reader.readLine();
+        if (line == null || !(line.equals(key) || line.startsWith(key + " "))) {
+            throw new IOException("Missing " + key);
+        }
+        return line.substring(key.length()).trim();
+    }
+
+    private static int[] indices(String text) {
+        if (text.isEmpty()) {
+            return new int[0];
+        }
+        String[] parts = text.split(" ");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i]);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Class used to keep, for every vertex, all the vertex ordered by their distance to it
+// The rows are sorted once, in parallel, then every question about a radius is a binary search over one row
+// The sorted distances are kept as doubles: a float copy would round them and could move a vertex across a radius
+public class SortedDistanceIndex {
+    // Number of rows sorted by a single task before it stops splitting
+    private static final int ROWS_PER_TASK = 16;
+
+    private final int V;
+    // order[v][i] is the i-th nearest vertex to v, ties by index, so order[v][0] is v unless another vertex is at 0
+    private final int[][] order;
+    private final double[][] sorted;
+    private final long comparisons;
+
+    public SortedDistanceIndex(double[][] distances) {
+        this(distances, ForkJoinPool.commonPool());
+    }
+
+    public SortedDistanceIndex(double[][] distances, ForkJoinPool pool) {
+        this.V = distances.length;
+        this.order = new int[V][];
+        this.sorted = new double[V][];
+        this.comparisons = pool.invoke(new RowsTask(distances, 0, V));
+    }
+
+    public int V() {
+        return V;
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    // Number of vertex within the radius of v, v included
+    public int countWithin(int v, double radius) {
+        double[] row = sorted[v];
+        int low = 0;
+        int high = row.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (row[mid] <= radius) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Vertex within the radius of v, nearest first
+    public int[] within(int v, double radius) {
+        return Arrays.copyOf(order[v], countWithin(v, radius));
+    }
+
+    // The i-th nearest vertex to v, counting from 0
+    public int kthNearest(int v, int i) {
+        return order[v][i];
+    }
+
+    public double kthDistance(int v, int i) {
+        return sorted[v][i];
+    }
+
+    // Lower bound of the optimal radius with k centers and the given number of vertex left out
+    // The V - outliers vertex served share k centers, so some center serves at least m = ceil((V - outliers) / k)
+    // of them, all within the optimum; that center has m vertex within the optimum, itself included, and the
+    // optimum is at least the distance from some vertex to its m-th nearest one
+    public double lowerBound(int k, int outliers) {
+        int served = V - outliers;
+        if (k < 1 || served <= k) {
+            return 0.0;
+        }
+        int m = (served + k - 1) / k;
+        double bound = Double.POSITIVE_INFINITY;
+        for (int v = 0; v < V; v++) {
+            bound = Math.min(bound, sorted[v][m - 1]);
+        }
+        return bound;
+    }
+
+    // Sorts one row the way CoverageIndex sorts its pairs: the distinct values first, then every vertex is placed
+    // in the bucket of its value, in index order
+    private long sortRow(double[][] distances, int v) {
+        double[] row = distances[v];
+        double[] values = row.clone();
+        Arrays.sort(values);
+        int distinct = 0;
+        for (int i = 0; i < V; i++) {
+            if (i == 0 || values[i] != values[i - 1]) {
+                values[distinct++] = values[i];
+            }
+        }
+
+        int[] start = new int[distinct + 1];
+        int[] rank = new int[V];
+        for (int u = 0; u < V; u++) {
+            int r = Arrays.binarySearch(values, 0, distinct, row[u]);
+            rank[u] = r;
+            start[r + 1]++;
+        }
+        for (int r = 0; r < distinct; r++) {
+            start[r + 1] += start[r];
+        }
+
+        int[] rowOrder = new int[V];
+        double[] rowSorted = new double[V];
+        for (int u = 0; u < V; u++) {
+            int position = start[rank[u]]++;
+            rowOrder[position] = u;
+            rowSorted[position] = row[u];
+        }
+        order[v] = rowOrder;
+        sorted[v] = rowSorted;
+
+        double log2V = V > 1 ? Math.log(V) / Math.log(2) : 1.0;
+        return (long) (2 * V * log2V);
+    }
+
+    private class RowsTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[][] distances;
+        private final int from;
+        private final int to;
+
+        RowsTask(double[][] distances, int from, int to) {
+            this.distances = distances;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= ROWS_PER_TASK) {
+                long comparisons = 0;
+                for (int v = from; v < to; v++) {
+                    comparisons += sortRow(distances, v);
+                }
+                return comparisons;
+            }
+
+            int mid = (from + to) >>> 1;
+            RowsTask left = new RowsTask(distances, from, mid);
+            left.fork();
+            long right = new RowsTask(distances, mid, to).compute();
+            return right + left.join();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleBiFunction;
+
+// Class used to solve the K-Centers problem over a stream of points in a single pass (doubling algorithm)
+// Only the centers, the radius of their clusters and a scale r are kept, so the memory is O(k) whatever the stream
+// Invariants: every point seen is within 4r of a center and the centers are more than 2r apart
+// A point farther than 4r from every center becomes a new one; with k + 1 centers, all more than 2r apart,
+// two of them share an optimal center and the optimum is above r, so r doubles and the centers are merged
+// The reported radius is at most 4r and the optimum is above r / 2, an 8-approximation
+// The distance must be a metric, and the points are added by a single thread
+public class StreamingKCenter<P> {
+    private static final double COVER_FACTOR = 4.0;
+    private static final double SEPARATION_FACTOR = 2.0;
+
+    private final int k;
+    private final ToDoubleBiFunction<P, P> distance;
+    private final List<P> centers;
+    // Largest distance from a point of the cluster to its center, as far as the merges let it be known
+    private final double[] clusterRadius;
+    private double r;
+    // Scale of the last overflow, k + 1 centers were at least twice this value apart
+    private double lowerBound;
+    private long points;
+    private long comparisons;
+    private long nanos;
+
+    public StreamingKCenter(int k, ToDoubleBiFunction<P, P> distance) {
+        if (k < 1)
+            throw new IllegalArgumentException("Number of centers must be positive");
+        this.k = k;
+        this.distance = distance;
+        this.centers = new ArrayList<>(k + 1);
+        this.clusterRadius = new double[k + 1];
+    }
+
+    // Points given as coordinates, with the Euclidean distance
+    public static StreamingKCenter<double[]> euclidean(int k) {
+        return new StreamingKCenter<>(k, (a, b) -> {
+            if (a.length != b.length)
+                throw new IllegalArgumentException("Points must have the same dimension");
+            double sum = 0.0;
+            for (int i = 0; i < a.length; i++) {
+                double d = a[i] - b[i];
+                sum += d * d;
+            }
+            return Math.sqrt(sum);
+        });
+    }
+
+    public void add(P point) {
+        long start = System.nanoTime();
+        points++;
+
+        // Nearest center, a point within the cover radius joins its cluster
+        int nearest = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < centers.size(); i++) {
+            double d = distance.applyAsDouble(point, centers.get(i));
+            if (d < nearestDistance) {
+                nearestDistance = d;
+                nearest = i;
+            }
+        }
+        comparisons += centers.size();
+
+        if (nearest != -1 && nearestDistance <= COVER_FACTOR * r) {
+            clusterRadius[nearest] = Math.max(clusterRadius[nearest], nearestDistance);
+        } else {
+            clusterRadius[centers.size()] = 0.0;
+            centers.add(point);
+            if (centers.size() > k) {
+                if (r == 0.0) {
+                    // The first k + 1 distinct points fix the scale, all of them are at least 2r apart
+                    r = minimumSeparation() / SEPARATION_FACTOR;
+                }
+                while (centers.size() > k) {
+                    lowerBound = Math.max(lowerBound, r);
+                    r *= 2;
+                    merge();
+                }
+            }
+        }
+        nanos += System.nanoTime() - start;
+    }
+
+    // Keeps the centers in order while they are more than 2r apart from the ones kept, every other cluster joins
+    // a kept center within 2r, so its points stay within their old radius plus 2r, which is at most the new 4r
+    private void merge() {
+        List<P> kept = new ArrayList<>(k + 1);
+        double[] keptRadius = new double[k + 1];
+
+        for (int i = 0; i < centers.size(); i++) {
+            P center = centers.get(i);
+            int owner = -1;
+            double ownerDistance = 0.0;
+            for (int j = 0; j < kept.size() && owner == -1; j++) {
+                double d = distance.applyAsDouble(center, kept.get(j));
+                comparisons++;
+                if (d <= SEPARATION_FACTOR * r) {
+                    owner = j;
+                    ownerDistance = d;
+                }
+            }
+
+            if (owner == -1) {
+                keptRadius[kept.size()] = clusterRadius[i];
+                kept.add(center);
+            } else {
+                keptRadius[owner] = Math.max(keptRadius[owner], ownerDistance + clusterRadius[i]);
+            }
+        }
+
+        centers.clear();
+        centers.addAll(kept);
+        System.arraycopy(keptRadius, 0, clusterRadius, 0, clusterRadius.length);
+    }
+
+    private double minimumSeparation() {
+        double minimum = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < centers.size(); i++) {
+            for (int j = i + 1; j < centers.size(); j++) {
+                minimum = Math.min(minimum, distance.applyAsDouble(centers.get(i), centers.get(j)));
+            }
+        }
+        comparisons += (long) centers.size() * (centers.size() - 1) / 2;
+        return minimum;
+    }
+
+    public List<P> centers() {
+        return new ArrayList<>(centers);
+    }
+
+    // Every point seen is within this distance of a center
+    public double radius() {
+        double radius = 0.0;
+        for (int i = 0; i < centers.size(); i++) {
+            radius = Math.max(radius, clusterRadius[i]);
+        }
+        return radius;
+    }
+
+    // The optimal radius of the points seen is at least this value
+    public double lowerBound() {
+        return lowerBound;
+    }
+
+    public long points() {
+        return points;
+    }
+
+    // Time spent adding points, distance evaluations and the radius of the centers so far
+    public MethodResult result() {
+        PhaseMetrics phases = new PhaseMetrics();
+        phases.record(PhaseMetrics.Phase.GREEDY, nanos, comparisons);
+        return new MethodResult(nanos / 1_000_000, comparisons, radius(), phases);
+    }
+}
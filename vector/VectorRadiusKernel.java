@@ -0,0 +1,62 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Class used to evaluate the radius reductions with the Vector API, a lane per vertex
+// Each block of vertex takes the lane-wise minimum of the rows of all the centers, so every load is contiguous
+// Compiled and run with --add-modules jdk.incubator.vector, RadiusKernels falls back to the scalar kernel otherwise
+public class VectorRadiusKernel implements RadiusKernel {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public double radius(double[][] distances, int[] centers, double bound) {
+        int V = distances.length;
+        int upper = SPECIES.loopBound(V);
+        DoubleVector limit = DoubleVector.broadcast(SPECIES, bound);
+        DoubleVector radius = DoubleVector.zero(SPECIES);
+
+        int v = 0;
+        for (; v < upper; v += SPECIES.length()) {
+            DoubleVector nearest = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+            for (int center : centers) {
+                nearest = nearest.min(DoubleVector.fromArray(SPECIES, distances[center], v));
+            }
+            if (nearest.compare(VectorOperators.GT, limit).anyTrue()) {
+                return Double.POSITIVE_INFINITY;
+            }
+            radius = radius.max(nearest);
+        }
+
+        // The vertex left after the last full block
+        double result = radius.reduceLanes(VectorOperators.MAX);
+        for (; v < V; v++) {
+            double minDistanceToCenter = Double.POSITIVE_INFINITY;
+            for (int center : centers) {
+                minDistanceToCenter = Math.min(minDistanceToCenter, distances[center][v]);
+            }
+            if (minDistanceToCenter > bound) {
+                return Double.POSITIVE_INFINITY;
+            }
+            result = Math.max(result, minDistanceToCenter);
+        }
+        return result;
+    }
+
+    @Override
+    public void relax(double[] nearest, double[] row) {
+        int V = nearest.length;
+        int upper = SPECIES.loopBound(V);
+
+        int v = 0;
+        for (; v < upper; v += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, nearest, v)
+                    .min(DoubleVector.fromArray(SPECIES, row, v))
+                    .intoArray(nearest, v);
+        }
+        for (; v < V; v++) {
+            if (row[v] < nearest[v]) {
+                nearest[v] = row[v];
+            }
+        }
+    }
+}